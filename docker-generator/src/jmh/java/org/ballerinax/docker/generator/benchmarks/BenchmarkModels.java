@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.benchmarks;
+
+import org.ballerinalang.model.elements.PackageID;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.wso2.ballerinalang.compiler.util.Name;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Docker models shared by the benchmarks.
+ */
+final class BenchmarkModels {
+
+    private BenchmarkModels() {
+    }
+
+    /**
+     * Create a model of a service with the given number of dependency jars, named like the jars of a typical
+     * Ballerina project: project module jars, Ballerina library jars and third-party jars.
+     *
+     * @param jarCount number of dependency jars
+     * @return docker model
+     */
+    static DockerModel createModel(int jarCount) {
+        DockerModel dockerModel = new DockerModel();
+        dockerModel.setName("benchmark-image");
+        dockerModel.setRegistry("ballerina");
+        dockerModel.setTag("v1");
+        dockerModel.setJarFileName("hello.jar");
+        dockerModel.setPorts(Collections.singleton(9090));
+        dockerModel.setBuildImage(false);
+        dockerModel.setPkgId(new PackageID(new Name("wso2"), new Name("hello"), new Name("1.0.0")));
+        dockerModel.setDependencyJarPaths(createJarPaths(jarCount));
+        return dockerModel;
+    }
+
+    private static Set<Path> createJarPaths(int jarCount) {
+        Path libDir = Paths.get("/tmp", "benchmark", "target", "lib");
+        Set<Path> jarPaths = new HashSet<>();
+        for (int i = 0; i < jarCount; i++) {
+            String jarName;
+            switch (i % 3) {
+                case 0:
+                    jarName = "wso2-hello-module" + i + "-1.0.0.jar";
+                    break;
+                case 1:
+                    jarName = "ballerina-lib" + i + "-2.0.0.jar";
+                    break;
+                default:
+                    jarName = "third-party-lib" + i + "-1.2.3.jar";
+                    break;
+            }
+            jarPaths.add(libDir.resolve(jarName));
+        }
+        return jarPaths;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.benchmarks;
+
+import org.apache.commons.io.FileUtils;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.utils.DockerGenUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of staging a directory of files into the docker output directory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CopyFileBenchmark {
+
+    private static final int KB = 1024;
+
+    /**
+     * Mix of files in the source directory: many small files, a few large files or both.
+     */
+    @Param({"SMALL", "LARGE", "MIXED"})
+    private FileMix fileMix;
+
+    /**
+     * Whether the sources are read-only, so that they are hard linked instead of copied.
+     */
+    @Param({"true", "false"})
+    private boolean readOnlySources;
+
+    private Path workDir;
+    private Path sourceDir;
+    private Path targetDir;
+
+    @Setup(Level.Trial)
+    public void createFiles() throws IOException {
+        this.workDir = Files.createTempDirectory("docker-copy-benchmark");
+        this.sourceDir = Files.createDirectories(this.workDir.resolve("source"));
+        this.targetDir = this.workDir.resolve("target");
+        Random random = new Random(42);
+        for (int i = 0; i < this.fileMix.smallFiles; i++) {
+            writeFile(this.sourceDir.resolve("small-" + i + ".jar"), 16 * KB, random);
+        }
+        for (int i = 0; i < this.fileMix.largeFiles; i++) {
+            writeFile(this.sourceDir.resolve("large-" + i + ".jar"), 32 * KB * KB, random);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void cleanTarget() throws IOException {
+        // the target is removed so that every invocation stages all files again
+        FileUtils.deleteDirectory(this.targetDir.toFile());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        FileUtils.deleteDirectory(this.workDir.toFile());
+    }
+
+    @Benchmark
+    public void copyFileOrDirectory() throws DockerGenException {
+        DockerGenUtils.copyFileOrDirectory(this.sourceDir, this.targetDir, this.readOnlySources);
+    }
+
+    private static void writeFile(Path path, int size, Random random) throws IOException {
+        byte[] content = new byte[size];
+        random.nextBytes(content);
+        Files.write(path, content);
+    }
+
+    /**
+     * Number of small and large files in the source directory.
+     */
+    public enum FileMix {
+        SMALL(500, 0),
+        LARGE(0, 4),
+        MIXED(250, 2);
+
+        private final int smallFiles;
+        private final int largeFiles;
+
+        FileMix(int smallFiles, int largeFiles) {
+            this.smallFiles = smallFiles;
+            this.largeFiles = largeFiles;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.benchmarks;
+
+import org.ballerinax.docker.generator.DockerArtifactHandler;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of generating the Dockerfile and reading the dependency jars of a model.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DockerfileBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int jarCount;
+
+    private DockerModel dockerModel;
+    private DockerArtifactHandler handler;
+
+    @Setup
+    public void setup() {
+        this.dockerModel = BenchmarkModels.createModel(this.jarCount);
+        this.handler = new DockerArtifactHandler(this.dockerModel);
+    }
+
+    @Benchmark
+    public String generateDockerfile() {
+        return this.handler.generateDockerfile();
+    }
+
+    @Benchmark
+    public Set<Path> getDependencyJarPaths() {
+        return this.dockerModel.getDependencyJarPaths();
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator;
+
+import com.github.dockerjava.api.model.BuildResponseItem;
+
+/**
+ * Receives the progress of a docker image build as it is streamed from the docker daemon.
+ */
+@FunctionalInterface
+public interface BuildProgressListener {
+
+    /**
+     * Called on the docker client thread for each item of the build response.
+     *
+     * @param item build response item
+     */
+    void onProgress(BuildResponseItem item);
+}
@@ -19,37 +19,82 @@
 package org.ballerinax.docker.generator;
 
 import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.command.BuildImageCmd;
 import com.github.dockerjava.api.command.BuildImageResultCallback;
 import com.github.dockerjava.api.model.BuildResponseItem;
 import com.github.dockerjava.api.model.ResponseItem;
-import com.github.dockerjava.core.DefaultDockerClientConfig;
-import com.github.dockerjava.core.DockerClientBuilder;
-import com.github.dockerjava.core.LocalDirectorySSLConfig;
-import com.github.dockerjava.core.RemoteApiVersion;
-import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
-import com.github.dockerjava.transport.DockerHttpClient;
 import org.ballerinalang.model.elements.PackageID;
+import org.ballerinax.docker.generator.events.BuildEventParser;
+import org.ballerinax.docker.generator.events.BuildEventSink;
 import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.ClassPathMode;
 import org.ballerinax.docker.generator.models.CopyFileModel;
+import org.ballerinax.docker.generator.models.DependencyJars;
 import org.ballerinax.docker.generator.models.DockerModel;
+import org.ballerinax.docker.generator.models.DockerfileModel;
+import org.ballerinax.docker.generator.models.ImageResult;
+import org.ballerinax.docker.generator.models.JarLayerModel;
+import org.ballerinax.docker.generator.oci.OciImageWriter;
+import org.ballerinax.docker.generator.utils.ArtifactManifest;
+import org.ballerinax.docker.generator.utils.BuildContext;
+import org.ballerinax.docker.generator.utils.BuildContextReport;
+import org.ballerinax.docker.generator.utils.BuildMetrics;
+import org.ballerinax.docker.generator.utils.BuildMetrics.Phase;
+import org.ballerinax.docker.generator.utils.ClassPathJar;
+import org.ballerinax.docker.generator.utils.DockerClientRegistry;
 import org.ballerinax.docker.generator.utils.DockerGenUtils;
 import org.ballerinax.docker.generator.utils.DockerImageName;
+import org.ballerinax.docker.generator.utils.DockerfileRenderer;
+import org.ballerinax.docker.generator.utils.JarLayerPlanner;
+import org.ballerinax.docker.generator.utils.JarPruner;
+import org.ballerinax.docker.generator.utils.NativeImageConfig;
+import org.ballerinax.docker.generator.utils.ParallelStager;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Locale;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import static org.ballerinax.docker.generator.DockerGenConstants.BALLERINA_UID;
+import static org.ballerinax.docker.generator.DockerGenConstants.BUILDER_STAGE;
+import static org.ballerinax.docker.generator.DockerGenConstants.BUILD_METRICS_FILE;
+import static org.ballerinax.docker.generator.DockerGenConstants.CDS_ARCHIVE_FILE;
+import static org.ballerinax.docker.generator.DockerGenConstants.CLASS_PATH_JAR;
+import static org.ballerinax.docker.generator.DockerGenConstants.CONTEXT_REPORT_FILE;
 import static org.ballerinax.docker.generator.DockerGenConstants.EXECUTABLE_JAR;
+import static org.ballerinax.docker.generator.DockerGenConstants.JLINK_RUNTIME_DIR;
+import static org.ballerinax.docker.generator.DockerGenConstants.NATIVE_EXECUTABLE;
+import static org.ballerinax.docker.generator.DockerGenConstants.NATIVE_IMAGE_CONFIG_DIR;
+import static org.ballerinax.docker.generator.DockerGenConstants.NON_ROOT_UID;
+import static org.ballerinax.docker.generator.DockerGenConstants.OCI_IMAGE_LAYOUT_DIR;
 import static org.ballerinax.docker.generator.DockerGenConstants.REGISTRY_SEPARATOR;
 import static org.ballerinax.docker.generator.DockerGenConstants.TAG_SEPARATOR;
+import static org.ballerinax.docker.generator.DockerGenConstants.TROUPE_GID;
 import static org.ballerinax.docker.generator.utils.DockerGenUtils.cleanErrorMessage;
 import static org.ballerinax.docker.generator.utils.DockerGenUtils.copyFileOrDirectory;
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.getErrorMessage;
 import static org.ballerinax.docker.generator.utils.DockerGenUtils.isBlank;
 import static org.ballerinax.docker.generator.utils.DockerGenUtils.printDebug;
 import static org.wso2.ballerinalang.compiler.bir.codegen.JvmConstants.FILE_NAME_PERIOD_SEPERATOR;
@@ -60,10 +105,9 @@ import static org.wso2.ballerinalang.compiler.bir.codegen.JvmConstants.MODULE_IN
  */
 public class DockerArtifactHandler {
 
-    private final DockerError dockerBuildError = new DockerError();
     private final DockerModel dockerModel;
-    private final DockerClient dockerClient;
-    private DefaultDockerClientConfig dockerClientConfig;
+    private volatile BuildMetrics buildMetrics;
+    private Semaphore stagingPermits;
 
     public DockerArtifactHandler(DockerModel dockerModel) {
         String registry = dockerModel.getRegistry();
@@ -74,7 +118,6 @@ public class DockerArtifactHandler {
         dockerModel.setName(imageName);
 
         this.dockerModel = dockerModel;
-        this.dockerClient = createClient();
     }
 
     private String getModuleLevelClassName(String orgName, String moduleName, String version) {
@@ -102,111 +145,420 @@ public class DockerArtifactHandler {
 
     public void createArtifacts(PrintStream outStream, String logAppender, Path jarFilePath, Path outputDir)
             throws DockerGenException {
-        String dockerContent;
-        if (!isWindowsBuild()) {
-            dockerContent = generateThinJarDockerfile();
-        } else {
-            dockerContent = generateThinJarWindowsDockerfile();
+        StagedArtifacts artifacts = stageArtifacts(outStream, logAppender, jarFilePath, outputDir);
+        buildStagedArtifacts(outStream, logAppender, artifacts);
+        reportBuildMetrics(outStream, logAppender, artifacts);
+    }
+
+    /**
+     * Share the staging permits of a batch, so that the files of all images of the batch are staged with a bounded
+     * number of concurrent copies.
+     *
+     * @param stagingPermits permits shared by the images of the batch
+     */
+    void setStagingPermits(Semaphore stagingPermits) {
+        this.stagingPermits = stagingPermits;
+    }
+
+    /**
+     * Get the phase timings of the last generated artifacts.
+     *
+     * @return build metrics, null if no artifacts were generated yet
+     */
+    public BuildMetrics getBuildMetrics() {
+        return this.buildMetrics;
+    }
+
+    /**
+     * Generate the Dockerfile and stage the files of the build context in the output directory.
+     *
+     * @param outStream   output stream to report the progress
+     * @param logAppender log prefix
+     * @param jarFilePath executable jar file path
+     * @param outputDir   docker output directory
+     * @return staged artifacts to build the image from
+     * @throws DockerGenException if the artifacts cannot be written
+     */
+    StagedArtifacts stageArtifacts(PrintStream outStream, String logAppender, Path jarFilePath, Path outputDir)
+            throws DockerGenException {
+        long startTime = System.nanoTime();
+        BuildMetrics metrics = new BuildMetrics();
+        if (isNativeImageEnabled() && this.dockerModel.isEnableDebug()) {
+            throw new DockerGenException("native images cannot be debugged remotely, disable debugging or the " +
+                    "native image build");
+        }
+        if (this.dockerModel.isPruneUnusedJars()) {
+            pruneUnusedJars(outStream, logAppender, jarFilePath);
+            metrics.record(Phase.PRUNE_JARS, System.nanoTime() - startTime, 0);
         }
-        copyNativeJars(outputDir);
+        StagedArtifacts artifacts = new StagedArtifacts(jarFilePath, outputDir, metrics, startTime);
+        long renderStart = System.nanoTime();
+        DockerfileRenderer renderer = new DockerfileRenderer(isWindowsBuild());
+        DockerfileModel dockerfileModel = createDockerfileModel();
+        if (null != artifacts.manifest || artifacts.streamBuildContext) {
+            // the manifest digests the content and streamed build contexts send it, so only these keep it in memory
+            artifacts.dockerContent = renderer.render(dockerfileModel);
+        }
+        long renderTime = System.nanoTime() - renderStart;
+        long classPathJarStart = System.nanoTime();
+        artifacts.classPathJar = createClassPathJar(jarFilePath);
+        if (null != artifacts.classPathJar) {
+            metrics.record(Phase.CLASS_PATH_JAR, System.nanoTime() - classPathJarStart,
+                    artifacts.classPathJar.length);
+        }
+        long nativeImageConfigStart = System.nanoTime();
+        artifacts.nativeImageConfig = createNativeImageConfig(jarFilePath);
+        if (null != artifacts.nativeImageConfig) {
+            metrics.record(Phase.NATIVE_IMAGE_CONFIG, System.nanoTime() - nativeImageConfigStart, 0);
+        }
+        List<ParallelStager.StagingTask> stagingTasks = new ArrayList<>();
+        if (!artifacts.streamBuildContext) {
+            // streamed build contexts read the files from their original location, so there is no need to stage them
+            addStagingTasks(stagingTasks, jarFilePath, outputDir, artifacts.manifest, !artifacts.daemonlessBuild,
+                    metrics);
+            if (null != artifacts.classPathJar) {
+                Path classPathJarPath = outputDir.resolve(CLASS_PATH_JAR);
+                stagingTasks.add(() -> writeClassPathJar(artifacts.classPathJar, classPathJarPath,
+                        artifacts.manifest));
+            }
+            if (null != artifacts.nativeImageConfig) {
+                Path configDir = outputDir.resolve(NATIVE_IMAGE_CONFIG_DIR);
+                stagingTasks.add(() -> writeNativeImageConfig(artifacts.nativeImageConfig, configDir,
+                        artifacts.manifest));
+            }
+        }
+        artifacts.stepCount = 1 + stagingTasks.size() + (this.dockerModel.isBuildImage() ? 1 : 0);
+        String logStepCount = String.valueOf(artifacts.stepCount);
         try {
-            String logStepCount = this.dockerModel.isBuildImage() ? "2" : "1";
             outStream.print(logAppender + " - complete 0/" + logStepCount + " \r");
-            DockerGenUtils.writeToFile(dockerContent, outputDir.resolve("Dockerfile"));
-            outStream.print(logAppender + " - complete 1/" + logStepCount + " \r");
-            Path jarLocation = outputDir.resolve(DockerGenUtils.extractJarName(jarFilePath) + EXECUTABLE_JAR);
-            copyFileOrDirectory(jarFilePath, jarLocation);
-            for (CopyFileModel copyFileModel : this.dockerModel.getCopyFiles()) {
-                // Copy external files to docker folder
-                Path target = outputDir.resolve(Paths.get(copyFileModel.getSource()).getFileName());
-                Path sourcePath = Paths.get(copyFileModel.getSource());
-                if (!sourcePath.isAbsolute()) {
-                    sourcePath = sourcePath.toAbsolutePath();
-                }
-                copyFileOrDirectory(sourcePath, target);
-
+            Path dockerfilePath = outputDir.resolve("Dockerfile");
+            if (null != artifacts.manifest) {
+                artifacts.manifest.writeFile(artifacts.dockerContent, dockerfilePath);
+            } else if (null != artifacts.dockerContent) {
+                DockerGenUtils.writeToFile(artifacts.dockerContent, dockerfilePath);
+            } else {
+                long streamStart = System.nanoTime();
+                renderer.render(dockerfileModel, dockerfilePath);
+                renderTime += System.nanoTime() - streamStart;
             }
-            //check image build is enabled.
-            if (this.dockerModel.isBuildImage()) {
-                buildImage(outputDir);
-                outStream.print(logAppender + " - complete 2/" + logStepCount + " \r");
+            long dockerfileSize = Files.size(dockerfilePath);
+            metrics.record(Phase.RENDER_DOCKERFILE, renderTime, dockerfileSize);
+            long reportStart = System.nanoTime();
+            writeContextReport(dockerfileSize, dockerfileModel, artifacts);
+            metrics.record(Phase.CONTEXT_REPORT, System.nanoTime() - reportStart, 0);
+            outStream.print(logAppender + " - complete 1/" + logStepCount + " \r");
+            new ParallelStager(this.dockerModel.getStagingConcurrency(), this.stagingPermits).stage(stagingTasks,
+                    completed -> outStream.print(logAppender + " - complete " + (1 + completed) + "/" +
+                            logStepCount + " \r"));
+            if (null != artifacts.manifest) {
+                artifacts.manifest.removeStaleEntries();
+                artifacts.manifest.save();
             }
         } catch (IOException e) {
             throw new DockerGenException("unable to write content to " + outputDir);
         }
+        return artifacts;
     }
 
-    private void copyNativeJars(Path outputDir) throws DockerGenException {
-        for (Path jarPath : this.dockerModel.getDependencyJarPaths()) {
-            // Copy jar files
-            Path target = outputDir.resolve(jarPath.getFileName());
-            Path sourcePath = jarPath;
-            if (!sourcePath.isAbsolute()) {
-                sourcePath = sourcePath.toAbsolutePath();
+    /**
+     * Build the image from staged artifacts if image building is enabled.
+     *
+     * @param outStream   output stream to report the progress
+     * @param logAppender log prefix
+     * @param artifacts   staged artifacts
+     * @throws DockerGenException if the image cannot be built
+     */
+    void buildStagedArtifacts(PrintStream outStream, String logAppender, StagedArtifacts artifacts)
+            throws DockerGenException {
+        //check image build is enabled.
+        if (!this.dockerModel.isBuildImage()) {
+            return;
+        }
+        ArtifactManifest manifest = artifacts.manifest;
+        long buildStart = System.nanoTime();
+        try {
+            if (artifacts.daemonlessBuild) {
+                writeOciImage(artifacts.jarFilePath, artifacts.outputDir.resolve(OCI_IMAGE_LAYOUT_DIR),
+                        artifacts.classPathJar);
+                artifacts.metrics.record(Phase.OCI_IMAGE, System.nanoTime() - buildStart, 0);
+            } else if (artifacts.streamBuildContext) {
+                BuildContext buildContext = createBuildContext(artifacts.dockerContent, artifacts.jarFilePath,
+                        artifacts.classPathJar);
+                if (null != artifacts.nativeImageConfig) {
+                    buildContext.addContent(NATIVE_IMAGE_CONFIG_DIR + "/" + NativeImageConfig.REFLECT_CONFIG_FILE,
+                            artifacts.nativeImageConfig.toReflectConfig());
+                    buildContext.addContent(NATIVE_IMAGE_CONFIG_DIR + "/" + NativeImageConfig.RESOURCE_CONFIG_FILE,
+                            artifacts.nativeImageConfig.toResourceConfig());
+                }
+                buildImage(buildContext);
+                artifacts.metrics.record(Phase.DAEMON_BUILD, System.nanoTime() - buildStart, 0);
+                artifacts.metrics.record(Phase.CONTEXT_UPLOAD, buildContext.getStreamTime().toNanos(),
+                        buildContext.getBytesWritten());
+            } else if (null != manifest && !this.dockerModel.isNoCache() &&
+                    manifest.isImageUpToDate(this.dockerModel.getName()) &&
+                    isImagePresent(this.dockerModel.getName())) {
+                printDebug("skipping image build as the docker artifacts of `" + this.dockerModel.getName() +
+                        "` are unchanged.");
+            } else {
+                buildImage(artifacts.outputDir);
+                artifacts.metrics.record(Phase.DAEMON_BUILD, System.nanoTime() - buildStart, 0);
+                if (null != manifest) {
+                    manifest.setBuiltImage(this.dockerModel.getName());
+                    manifest.save();
+                }
             }
-            copyFileOrDirectory(sourcePath, target);
+        } catch (IOException e) {
+            throw new DockerGenException("unable to write content to " + artifacts.outputDir);
         }
+        outStream.print(logAppender + " - complete " + artifacts.stepCount + "/" + artifacts.stepCount + " \r");
     }
 
-    private DockerClient createClient() {
-        DefaultDockerClientConfig.Builder dockerClientConfigBuilder =
-                DefaultDockerClientConfig.createDefaultConfigBuilder();
+    /**
+     * Record the total time of the artifacts and, if enabled, print the phase timings and write them to the metrics
+     * file of the output directory.
+     *
+     * @param outStream   output stream to print the summary
+     * @param logAppender log prefix
+     * @param artifacts   staged and built artifacts
+     * @throws DockerGenException if the metrics file cannot be written
+     */
+    void reportBuildMetrics(PrintStream outStream, String logAppender, StagedArtifacts artifacts)
+            throws DockerGenException {
+        artifacts.metrics.record(Phase.TOTAL, System.nanoTime() - artifacts.startTime, 0);
+        this.buildMetrics = artifacts.metrics;
+        if (!this.dockerModel.isBuildMetrics()) {
+            return;
+        }
+        outStream.println();
+        artifacts.metrics.toSummary(logAppender).forEach(outStream::println);
+        try {
+            DockerGenUtils.writeToFile(artifacts.metrics.toJson(this.dockerModel.getName()),
+                    artifacts.outputDir.resolve(BUILD_METRICS_FILE));
+        } catch (IOException e) {
+            throw new DockerGenException("unable to write content to " + artifacts.outputDir);
+        }
+    }
 
-        // if windows, consider DOCKER_HOST as "tcp://localhost:2375"
-        if (System.getProperty("os.name").toLowerCase(Locale.getDefault()).contains("win")) {
-            dockerClientConfigBuilder.withDockerHost("tcp://localhost:2375");
+    /**
+     * Remove the third-party dependency jars which are not reachable from the module, unless they are allow-listed.
+     *
+     * @param outStream   output stream to report the pruned jars
+     * @param logAppender log prefix
+     * @param jarFilePath executable jar file path
+     * @throws DockerGenException if a jar cannot be read
+     */
+    private void pruneUnusedJars(PrintStream outStream, String logAppender, Path jarFilePath)
+            throws DockerGenException {
+        if (!this.dockerModel.isPruneUnusedJars()) {
+            return;
         }
+        DependencyJars dependencyJars = this.dockerModel.getDependencyJars();
+        List<Path> keptJars = new ArrayList<>();
+        List<Path> candidateJars = new ArrayList<>();
+        for (int i = 0; i < dependencyJars.size(); i++) {
+            if (dependencyJars.getGroup(i) == JarLayerModel.LayerGroup.THIRD_PARTY) {
+                candidateJars.add(dependencyJars.getJars().get(i));
+            } else {
+                keptJars.add(dependencyJars.getJars().get(i));
+            }
+        }
+        List<Path> unusedJars;
+        try {
+            unusedJars = new JarPruner(this.dockerModel.getKeepJars()).findUnusedJars(jarFilePath, keptJars,
+                    candidateJars);
+        } catch (IOException e) {
+            throw new DockerGenException("unable to find unused dependency jars: " + e.getMessage());
+        }
+        if (unusedJars.isEmpty()) {
+            printDebug("no unused dependency jars found in " + candidateJars.size() + " third-party jar(s).");
+            return;
+        }
+        Set<Path> dependencyJarPaths = new TreeSet<>(dependencyJars.getPaths());
+        unusedJars.forEach(dependencyJarPaths::remove);
+        this.dockerModel.setDependencyJarPaths(dependencyJarPaths);
+        outStream.println(logAppender + " - pruned " + unusedJars.size() + " unused jar(s): " + unusedJars.stream()
+                .map(jar -> String.valueOf(jar.getFileName())).sorted().collect(Collectors.joining(", ")));
+    }
 
-        // set docker host
-        if (null != this.dockerModel.getDockerHost()) {
-            dockerClientConfigBuilder.withDockerHost(this.dockerModel.getDockerHost());
+    private void writeContextReport(long dockerfileSize, DockerfileModel dockerfileModel, StagedArtifacts artifacts)
+            throws DockerGenException, IOException {
+        Map<String, Path> sources = new HashMap<>();
+        for (Path jar : this.dockerModel.getDependencyJars().getJars()) {
+            sources.put(String.valueOf(jar.getFileName()), jar);
+        }
+        sources.put(this.dockerModel.getJarFileName(), artifacts.jarFilePath);
+        for (CopyFileModel copyFile : this.dockerModel.getCopyFiles()) {
+            Path source = Paths.get(copyFile.getSource()).toAbsolutePath();
+            sources.put(String.valueOf(source.getFileName()), source);
         }
+        Map<String, Long> generatedFiles = new HashMap<>();
+        if (null != artifacts.classPathJar) {
+            generatedFiles.put(CLASS_PATH_JAR, (long) artifacts.classPathJar.length);
+        }
+        if (null != artifacts.nativeImageConfig) {
+            generatedFiles.put(NATIVE_IMAGE_CONFIG_DIR, (long) (artifacts.nativeImageConfig.toReflectConfig().length +
+                    artifacts.nativeImageConfig.toResourceConfig().length));
+        }
+        BuildContextReport report = BuildContextReport.create(dockerfileSize, dockerfileModel, sources,
+                generatedFiles);
+        // the base image is only inspected when there is an image budget to check it against
+        if (this.dockerModel.isBuildImage() && !artifacts.daemonlessBuild && this.dockerModel.getMaxImageSize() > 0) {
+            report.setBaseImageSize(getBaseImageSize());
+        }
+        Path reportPath = artifacts.outputDir.resolve(CONTEXT_REPORT_FILE);
+        if (null != artifacts.manifest) {
+            artifacts.manifest.writeFile(report.toJson(), reportPath);
+        } else {
+            DockerGenUtils.writeToFile(report.toJson(), reportPath);
+        }
+        printDebug("docker build context is " + report.getContextSize() + " bytes, see `" + reportPath + "`.");
+        report.checkBudgets(this.dockerModel.getName(), this.dockerModel.getMaxContextSize(),
+                this.dockerModel.getMaxImageSize());
+    }
 
-        // set docker cert path
-        if (null != this.dockerModel.getDockerCertPath()) {
-            dockerClientConfigBuilder.withDockerCertPath(this.dockerModel.getDockerCertPath());
+    private boolean isImagePresent(String imageName) {
+        try {
+            getDockerClient().inspectImageCmd(imageName).exec();
+            return true;
+        } catch (RuntimeException e) {
+            // the image was removed or the daemon changed since the previous build
+            printDebug("rebuilding image `" + imageName + "` as it cannot be inspected: " + e.getMessage());
+            return false;
         }
+    }
 
-        // set docker API version
-        if (null != this.dockerModel.getDockerAPIVersion()) {
-            dockerClientConfigBuilder.withApiVersion(this.dockerModel.getDockerAPIVersion());
+    private long getBaseImageSize() {
+        try {
+            Long size = getDockerClient().inspectImageCmd(getFinalBaseImage()).exec().getSize();
+            return null == size ? -1 : size;
+        } catch (RuntimeException e) {
+            // the base image is not pulled yet, the image size budget only covers the generated layers
+            printDebug("unable to find the size of base image `" + getFinalBaseImage() + "`: " +
+                    e.getMessage());
+            return -1;
         }
+    }
 
-        // set docker registry url
-        if (null != this.dockerModel.getRegistry()) {
-            dockerClientConfigBuilder.withRegistryUrl(this.dockerModel.getRegistry());
+    private void writeClassPathJar(byte[] classPathJar, Path target, ArtifactManifest manifest)
+            throws DockerGenException {
+        try {
+            if (null != manifest) {
+                manifest.writeFile(classPathJar, target);
+            } else {
+                Files.write(target, classPathJar);
+            }
+        } catch (IOException e) {
+            throw new DockerGenException("unable to write the class path jar to " + target);
         }
+    }
 
-        if (null != this.dockerModel.getDockerConfig()) {
-            dockerClientConfigBuilder.withDockerConfig(this.dockerModel.getDockerConfig());
+    /**
+     * Generate the native image configuration of the module, if the image is built as a native image.
+     *
+     * @param jarFilePath executable jar file path
+     * @return native image configuration, null if the image is not a native image
+     * @throws DockerGenException if the executable jar cannot be read
+     */
+    private NativeImageConfig createNativeImageConfig(Path jarFilePath) throws DockerGenException {
+        if (!isNativeImageEnabled()) {
+            return null;
+        }
+        try {
+            return NativeImageConfig.create(jarFilePath, getNativeMainClass());
+        } catch (IOException e) {
+            throw new DockerGenException("unable to generate the native image configuration: " + e.getMessage());
         }
+    }
 
-        this.dockerClientConfig = dockerClientConfigBuilder.build();
-        printDebug("docker client host: " + this.dockerClientConfig.getDockerHost());
+    private void writeNativeImageConfig(NativeImageConfig config, Path configDir, ArtifactManifest manifest)
+            throws DockerGenException {
+        try {
+            Files.createDirectories(configDir);
+            Path reflectConfigPath = configDir.resolve(NativeImageConfig.REFLECT_CONFIG_FILE);
+            Path resourceConfigPath = configDir.resolve(NativeImageConfig.RESOURCE_CONFIG_FILE);
+            if (null != manifest) {
+                manifest.writeFile(config.toReflectConfig(), reflectConfigPath);
+                manifest.writeFile(config.toResourceConfig(), resourceConfigPath);
+            } else {
+                Files.write(reflectConfigPath, config.toReflectConfig());
+                Files.write(resourceConfigPath, config.toResourceConfig());
+            }
+        } catch (IOException e) {
+            throw new DockerGenException("unable to write the native image configuration to " + configDir);
+        }
+    }
 
-        if (!this.dockerClientConfig.getApiVersion().equals(RemoteApiVersion.unknown())) {
-            printDebug("docker client API version: " + this.dockerClientConfig.getApiVersion().getVersion());
+    private void stage(Path source, Path target, ArtifactManifest manifest, BuildMetrics metrics, Phase phase)
+            throws DockerGenException {
+        long start = System.nanoTime();
+        // only the dependency jars of the package cache are never written, all other files are copied
+        boolean readOnlySource = phase == Phase.STAGE_DEPENDENCY_JARS;
+        if (null != manifest) {
+            manifest.copy(source, target, readOnlySource);
         } else {
-            printDebug("docker client API version: not-set");
+            copyFileOrDirectory(source, target, readOnlySource);
         }
+        metrics.record(phase, System.nanoTime() - start, Files.isRegularFile(source) ? source.toFile().length() : 0);
+    }
 
-        if (null != this.dockerClientConfig.getSSLConfig() &&
-                this.dockerClientConfig.getSSLConfig() instanceof LocalDirectorySSLConfig) {
-            LocalDirectorySSLConfig sslConfig = (LocalDirectorySSLConfig) this.dockerClientConfig.getSSLConfig();
-            printDebug("docker client certs path: " + sslConfig.getDockerCertPath());
-            printDebug("docker client TLS verify: true");
-        } else {
-            printDebug("docker client TLS verify: false");
+    private void addStagingTasks(List<ParallelStager.StagingTask> stagingTasks, Path jarFilePath, Path outputDir,
+                                 ArtifactManifest manifest, boolean stageNativeJars, BuildMetrics metrics) {
+        if (stageNativeJars) {
+            // daemonless builds read the jars from their original location, so there is no need to stage them
+            for (Path jarPath : this.dockerModel.getDependencyJarPaths()) {
+                // Copy jar files
+                Path target = outputDir.resolve(jarPath.getFileName());
+                Path sourcePath = jarPath.toAbsolutePath();
+                stagingTasks.add(() -> stage(sourcePath, target, manifest, metrics, Phase.STAGE_DEPENDENCY_JARS));
+            }
+        }
+        Path jarLocation = outputDir.resolve(DockerGenUtils.extractJarName(jarFilePath) + EXECUTABLE_JAR);
+        stagingTasks.add(() -> stage(jarFilePath, jarLocation, manifest, metrics, Phase.STAGE_EXECUTABLE_JAR));
+        for (CopyFileModel copyFileModel : this.dockerModel.getCopyFiles()) {
+            // Copy external files to docker folder
+            Path target = outputDir.resolve(Paths.get(copyFileModel.getSource()).getFileName());
+            Path sourcePath = Paths.get(copyFileModel.getSource()).toAbsolutePath();
+            stagingTasks.add(() -> stage(sourcePath, target, manifest, metrics, Phase.STAGE_EXTERNAL_FILES));
+        }
+    }
+
+    /**
+     * Create the build context of the image from the original location of the files referred by the Dockerfile.
+     *
+     * @param dockerContent Dockerfile content
+     * @param jarFilePath   executable jar file path
+     * @param classPathJar  class path jar content, null if the image does not use a class path jar
+     * @return build context
+     * @throws DockerGenException if a file of the build context does not exist
+     */
+    public BuildContext createBuildContext(String dockerContent, Path jarFilePath, byte[] classPathJar)
+            throws DockerGenException {
+        BuildContext buildContext = new BuildContext();
+        buildContext.addContent("Dockerfile", dockerContent);
+        if (null != classPathJar) {
+            buildContext.addContent(CLASS_PATH_JAR, classPathJar);
+        }
+        for (Path jarPath : this.dockerModel.getDependencyJarPaths()) {
+            addToBuildContext(buildContext, jarPath.getFileName().toString(), jarPath.toAbsolutePath());
+        }
+        addToBuildContext(buildContext, DockerGenUtils.extractJarName(jarFilePath) + EXECUTABLE_JAR, jarFilePath);
+        for (CopyFileModel copyFileModel : this.dockerModel.getCopyFiles()) {
+            Path sourcePath = Paths.get(copyFileModel.getSource()).toAbsolutePath();
+            addToBuildContext(buildContext, sourcePath.getFileName().toString(), sourcePath);
         }
-        DockerHttpClient httpClient = new ApacheDockerHttpClient.Builder()
-                .dockerHost(dockerClientConfig.getDockerHost())
-                .sslConfig(dockerClientConfig.getSSLConfig())
-                .maxConnections(100)
-                .connectionTimeout(Duration.ofSeconds(60))
-                .responseTimeout(Duration.ofSeconds(60))
-                .build();
+        return buildContext;
+    }
 
-        return DockerClientBuilder.getInstance(dockerClientConfig).withDockerHttpClient(httpClient).build();
+    private void addToBuildContext(BuildContext buildContext, String name, Path source) throws DockerGenException {
+        if (!Files.exists(source)) {
+            throw new DockerGenException("error while copying file/folder '" + source + "' as it does not exist");
+        }
+        buildContext.addPath(name, source);
+    }
+
+    private DockerClient getDockerClient() {
+        // the client is only created when the daemon is used, Dockerfile generation never opens a connection
+        return DockerClientRegistry.getClient(this.dockerModel);
     }
 
     /**
@@ -215,195 +567,573 @@ public class DockerArtifactHandler {
      * @param dockerDir dockerfile directory
      */
     public void buildImage(Path dockerDir) throws DockerGenException {
-        // validate docker image name
-        DockerImageName.validate(this.dockerModel.getName());
+        awaitBuild(buildImageAsync(dockerDir, null, null));
+    }
+
+    /**
+     * Build the docker image from a build context streamed to the docker daemon.
+     *
+     * @param buildContext build context
+     * @throws DockerGenException if the image cannot be built
+     */
+    public void buildImage(BuildContext buildContext) throws DockerGenException {
+        awaitBuild(buildImageAsync(buildContext, null, null));
+    }
+
+    /**
+     * Build the docker image without blocking the calling thread. Cancelling the returned future aborts the build
+     * request to the docker daemon.
+     *
+     * @param dockerDir dockerfile directory
+     * @param listener  listener to receive the build progress, null to only log it
+     * @param timeout   maximum duration of the build, null to wait until the build completes
+     * @return future completed with the built image, with a {@link DockerGenException} if the build fails or with a
+     * {@link java.util.concurrent.TimeoutException} if the build does not complete within the timeout
+     */
+    public CompletableFuture<ImageResult> buildImageAsync(Path dockerDir, BuildProgressListener listener,
+                                                          Duration timeout) {
+        try {
+            // validate docker image name
+            DockerImageName.validate(this.dockerModel.getName());
+        } catch (DockerGenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
         printDebug("building docker image `" + this.dockerModel.getName() + "` from directory `" + dockerDir + "`.");
+        return execBuildImage(() -> getDockerClient().buildImageCmd(dockerDir.toFile()), listener, timeout, null,
+                null);
+    }
 
+    /**
+     * Build the docker image from a build context streamed to the docker daemon, without blocking the calling thread.
+     * Cancelling the returned future aborts the build request to the docker daemon.
+     *
+     * @param buildContext build context
+     * @param listener     listener to receive the build progress, null to only log it
+     * @param timeout      maximum duration of the build, null to wait until the build completes
+     * @return future completed with the built image, with a {@link DockerGenException} if the build fails or with a
+     * {@link java.util.concurrent.TimeoutException} if the build does not complete within the timeout
+     */
+    public CompletableFuture<ImageResult> buildImageAsync(BuildContext buildContext, BuildProgressListener listener,
+                                                          Duration timeout) {
+        InputStream tarInputStream;
+        try {
+            // validate docker image name
+            DockerImageName.validate(this.dockerModel.getName());
+            tarInputStream = buildContext.openStream();
+        } catch (DockerGenException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(
+                    new DockerGenException("unable to stream docker build context: " + e.getMessage()));
+        }
+
+        printDebug("building docker image `" + this.dockerModel.getName() + "` from a streamed build context.");
+        return execBuildImage(() -> getDockerClient().buildImageCmd(tarInputStream), listener, timeout, buildContext,
+                tarInputStream);
+    }
+
+    private CompletableFuture<ImageResult> execBuildImage(Supplier<BuildImageCmd> buildImageCmd,
+                                                          BuildProgressListener listener, Duration timeout,
+                                                          BuildContext buildContext, Closeable source) {
+        printDebug("docker layer cache: " + (this.dockerModel.isNoCache() ? "disabled" : "enabled"));
+
+        BuildProgressListener progressListener = listener;
+        BuildEventSink buildEventSink = this.dockerModel.getBuildEventSink();
+        BuildEventParser eventParser = null == buildEventSink ? null :
+                new BuildEventParser(this.dockerModel.getName(), buildEventSink);
+        if (null != eventParser) {
+            progressListener = null == listener ? eventParser : item -> {
+                eventParser.onProgress(item);
+                listener.onProgress(item);
+            };
+        }
+        DockerBuildImageCallback callback = new DockerBuildImageCallback(progressListener, buildContext);
+        CompletableFuture<ImageResult> result = callback.result;
+        if (null != eventParser) {
+            // failures, timeouts and cancellations end the build without any build output saying so
+            result.whenComplete((image, error) -> eventParser.onBuildCompleted(error));
+        }
+        if (null != timeout) {
+            // orTimeout completes the build with a TimeoutException without a message, so the timeout is reported with
+            // the configured duration instead. Completing the build cancels the timer.
+            CompletableFuture<Void> timer = new CompletableFuture<Void>()
+                    .completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS);
+            timer.thenRun(() -> result.completeExceptionally(new TimeoutException("docker image build timed out " +
+                    "after " + formatSeconds(timeout))));
+            result.whenComplete((image, error) -> timer.cancel(false));
+        }
+        // closing the response stream on cancellation or timeout aborts the build on the docker daemon
+        result.whenComplete((image, error) -> {
+            closeQuietly(callback);
+            closeQuietly(source);
+        });
         try {
-            this.dockerClient.buildImageCmd(dockerDir.toFile())
-                    .withNoCache(true)
+            // reuse cached layers unless a clean rebuild is requested, so unchanged jar layers are not rebuilt.
+            buildImageCmd.get()
+                    .withNoCache(this.dockerModel.isNoCache())
                     .withForcerm(true)
                     .withTags(Collections.singleton(this.dockerModel.getName()))
-                    .exec(new DockerBuildImageCallback())
-                    .awaitImageId();
-        } catch (RuntimeException ex) {
-            String message = ex.getMessage();
-            if (message.contains("java.net.SocketException: Connection refused")) {
-                this.dockerBuildError.setErrorMsg("unable to connect to docker host: " +
-                        this.dockerClientConfig.getDockerHost());
-            } else {
-                this.dockerBuildError.setErrorMsg("unable to build docker image: " +
-                        cleanErrorMessage(message));
+                    .exec(callback);
+        } catch (RuntimeException e) {
+            result.completeExceptionally(toBuildException(e));
+        }
+        return result;
+    }
+
+    private static ImageResult awaitBuild(CompletableFuture<ImageResult> build) throws DockerGenException {
+        try {
+            return build.get();
+        } catch (InterruptedException e) {
+            build.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new DockerGenException("docker image build was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DockerGenException) {
+                throw (DockerGenException) e.getCause();
+            }
+            if (e.getCause() instanceof TimeoutException && null != e.getCause().getMessage()) {
+                throw new DockerGenException(e.getCause().getMessage());
+            }
+            throw new DockerGenException("unable to build docker image: " +
+                    cleanErrorMessage(getErrorMessage(e.getCause())));
+        }
+    }
+
+    private DockerGenException toBuildException(Throwable throwable) {
+        String message = getErrorMessage(throwable);
+        if (message.contains("java.net.SocketException: Connection refused")) {
+            return new DockerGenException("unable to connect to docker host: " +
+                    DockerClientRegistry.createClientConfig(this.dockerModel).getDockerHost());
+        }
+        for (Throwable cause = throwable; null != cause; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof SocketTimeoutException) {
+                return new DockerGenException("docker image build timed out after " +
+                        this.dockerModel.getDockerResponseTimeoutSeconds() + " s waiting for the docker daemon");
             }
         }
+        return new DockerGenException("unable to build docker image: " + cleanErrorMessage(message));
+    }
 
-        handleError(this.dockerBuildError);
+    private static String formatSeconds(Duration duration) {
+        return BigDecimal.valueOf(duration.toMillis(), 3).stripTrailingZeros().toPlainString() + " s";
     }
 
-    private void handleError(DockerError dockerError) throws DockerGenException {
-        if (dockerError.isError()) {
-            throw new DockerGenException(dockerError.getErrorMsg());
+    private static void closeQuietly(Closeable closeable) {
+        if (null == closeable) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            printDebug("unable to close docker build stream: " + e.getMessage());
         }
     }
 
     /**
-     * Generate Dockerfile content using thin jar.
+     * Create docker image as an OCI image layout without a docker daemon.
      *
-     * @return Dockerfile content as a string
+     * @param jarFilePath  executable jar path
+     * @param layoutDir    OCI image layout directory
+     * @param classPathJar class path jar content, null if the image does not use a class path jar
      */
-    private String generateThinJarDockerfile() {
-        StringBuilder dockerfileContent = new StringBuilder();
-        dockerfileContent.append("# Auto Generated Dockerfile\n");
-        dockerfileContent.append("FROM ").append(this.dockerModel.getBaseImage()).append("\n");
-        dockerfileContent.append("\n");
-        dockerfileContent.append("LABEL maintainer=\"dev@ballerina.io\"").append("\n");
-        // Append Jar copy instructions without observability jar and executable jar
-        this.dockerModel.getDependencyJarPaths()
-                .stream()
-                .map(Path::getFileName)
-                .filter(path -> !(path.toString().endsWith("-observability-symbols.jar") ||
-                        path.toString().endsWith(dockerModel.getJarFileName())))
-                .collect(Collectors.toCollection(TreeSet::new))
-                .forEach(path -> {
-                            dockerfileContent.append("COPY ")
-                                    .append(path)
-                                    .append(" ").append(getWorkDir())
-                                    .append("/jars/ \n");
-                            //TODO: Remove once https://github.com/moby/moby/issues/37965 is fixed.
-                            boolean isCiBuild = "true".equals(System.getenv().get("CI_BUILD"));
-                            if (isCiBuild) {
-                                dockerfileContent.append("RUN true \n");
-                            }
-                        }
-                        );
-        // Append Jar copy for observability jar and executable jar
-        this.dockerModel.getDependencyJarPaths().forEach(path -> {
-                    if (path.toString().endsWith("observability-symbols.jar") ||
-                            path.toString().endsWith(dockerModel.getJarFileName())) {
-                        dockerfileContent.append("COPY ")
-                                .append(path.getFileName())
-                                .append(" ").append(getWorkDir())
-                                .append("/jars/ \n");
-                    }
-                }
-                                                        );
-        appendUser(dockerfileContent);
-        dockerfileContent.append("WORKDIR ").append(getWorkDir()).append("\n");
-        appendCommonCommands(dockerfileContent);
-        if (isBlank(this.dockerModel.getCmd())) {
-            PackageID packageID = this.dockerModel.getPkgId();
-            final String mainClass = getModuleLevelClassName(packageID.orgName.value, packageID.name.value,
-                    packageID.version.value);
-            if (this.dockerModel.isEnableDebug()) {
-                dockerfileContent.append("CMD java -Xdiag -agentlib:jdwp=transport=dt_socket,server=y,suspend=n," +
-                        "address='*:")
-                        .append(this.dockerModel.getDebugPort()).append("' -cp \"")
-                        .append(this.dockerModel.getJarFileName()).append(":jars/*\" ").append(mainClass);
-            } else {
-                dockerfileContent.append("CMD java -Xdiag -cp \"").append(this.dockerModel.getJarFileName())
-                        .append(":jars/*\" ").append(mainClass);
+    public void writeOciImage(Path jarFilePath, Path layoutDir, byte[] classPathJar) throws DockerGenException {
+        if (isWindowsBuild()) {
+            throw new DockerGenException("building windows docker images without a docker daemon is not supported");
+        }
+        if (this.dockerModel.isAppCds()) {
+            throw new DockerGenException("class data sharing archives cannot be generated without a docker daemon");
+        }
+        if (this.dockerModel.isJlinkRuntime()) {
+            throw new DockerGenException("jlink runtimes cannot be generated without a docker daemon");
+        }
+        if (this.dockerModel.isNativeImage()) {
+            throw new DockerGenException("native images cannot be generated without a docker daemon");
+        }
+        DockerImageName.validate(this.dockerModel.getName());
+        new OciImageWriter(this.dockerModel, getCmdInstruction(), classPathJar).write(jarFilePath, layoutDir);
+    }
+
+    /**
+     * Generate the content of the Dockerfile of the image.
+     *
+     * @return Dockerfile content
+     */
+    public String generateDockerfile() {
+        return new DockerfileRenderer(isWindowsBuild()).render(createDockerfileModel());
+    }
+
+    /**
+     * Create the Dockerfile model of the image. Build-time work, such as linking a runtime or dumping a class data
+     * sharing archive, is done in a builder stage so that only its results are copied to the runtime stage.
+     *
+     * @return Dockerfile model
+     */
+    private DockerfileModel createDockerfileModel() {
+        DockerfileModel dockerfileModel = new DockerfileModel();
+        List<JarLayerModel> jarLayers = planJarLayers();
+        if (isNativeImageEnabled()) {
+            addNativeImageStages(dockerfileModel, jarLayers);
+            return dockerfileModel;
+        }
+        if (isJlinkRuntimeEnabled() || isAppCdsEnabled()) {
+            addBuilderStage(dockerfileModel, jarLayers);
+        }
+        DockerfileModel.Stage runtimeStage = dockerfileModel.addStage(getFinalBaseImage(), null);
+        runtimeStage.label("maintainer", "dev@ballerina.io");
+        if (isJlinkRuntimeEnabled()) {
+            runtimeStage.copy(BUILDER_STAGE, Arrays.asList(JLINK_RUNTIME_DIR, JLINK_RUNTIME_DIR));
+            runtimeStage.env("JAVA_HOME", JLINK_RUNTIME_DIR);
+        }
+        // Append Jar copy instructions ordered from the least to the most frequently changing layer
+        //TODO: Remove once https://github.com/moby/moby/issues/37965 is fixed.
+        for (JarLayerModel jarLayer : jarLayers) {
+            runtimeStage.copy(null, toCopyPaths(jarLayer.getJars(), "jars/"));
+            if (this.dockerModel.isCiBuild() && jarLayer.getGroup() != JarLayerModel.LayerGroup.APPLICATION) {
+                runtimeStage.run("true");
             }
-        } else {
-            dockerfileContent.append(this.dockerModel.getCmd());
-        }
-        if (!DockerGenUtils.isBlank(this.dockerModel.getCommandArg())) {
-            dockerfileContent.append(this.dockerModel.getCommandArg());
-        }
-        dockerfileContent.append("\n");
-
-        return dockerfileContent.toString();
-    }
-
-    private void appendUser(StringBuilder dockerfileContent) {
-        if (this.dockerModel.getBaseImage().equals(DockerGenConstants.OPENJDK_11_JRE_SLIM_BASE)) {
-            dockerfileContent.append("RUN addgroup troupe \\").append(System.lineSeparator());
-            dockerfileContent.append("    && adduser -S -s /bin/bash -g 'ballerina' -G troupe -D ballerina \\")
-                    .append("\n");
-            dockerfileContent.append("    && apk add --update --no-cache bash \\").append(System.lineSeparator());
-            dockerfileContent.append("    && chown -R ballerina:troupe /usr/bin/java \\")
-                    .append(System.lineSeparator());
-            dockerfileContent.append("    && rm -rf /var/cache/apk/*").append(System.lineSeparator());
-            dockerfileContent.append("\n");
-        }
-    }
-
-    private String generateThinJarWindowsDockerfile() {
-        final String separator = "\\";
-        StringBuilder dockerfileContent = new StringBuilder();
-        dockerfileContent.append("# Auto Generated Dockerfile\n");
-        dockerfileContent.append("FROM ").append(this.dockerModel.getBaseImage()).append("\n");
-        dockerfileContent.append(System.lineSeparator());
-        dockerfileContent.append("LABEL maintainer=\"dev@ballerina.io\"").append(System.lineSeparator());
-        dockerfileContent.append(System.lineSeparator());
-        dockerfileContent.append("WORKDIR ").append(getWorkDir()).append(System.lineSeparator());
-
-        for (Path path : this.dockerModel.getDependencyJarPaths()) {
-            dockerfileContent.append("COPY ").append(path.getFileName()).append(getWorkDir())
-                    .append("jars").append(separator);
-            dockerfileContent.append(System.lineSeparator());
-        }
-        dockerfileContent.append(System.lineSeparator());
-        appendCommonCommands(dockerfileContent);
-        if (isBlank(this.dockerModel.getCmd())) {
-            PackageID packageID = this.dockerModel.getPkgId();
-            final String mainClass = getModuleLevelClassName(packageID.orgName.value, packageID.name.value,
-                    packageID.version.value);
-            if (this.dockerModel.isEnableDebug()) {
-                dockerfileContent.append("CMD java -Xdiag -agentlib:jdwp=transport=dt_socket,server=y,suspend=n," +
-                        "address='*:").append(this.dockerModel.getDebugPort()).append("' -cp \"")
-                        .append(this.dockerModel.getJarFileName()).append(":jars/*\" ").append(mainClass);
-            } else {
-                dockerfileContent.append("CMD java -Xdiag -cp \"").append(this.dockerModel.getJarFileName())
-                        .append(":jars/*\" ").append(mainClass);
+        }
+        addUser(runtimeStage);
+        runtimeStage.workDir();
+        runtimeStage.copy(null, Arrays.asList(this.dockerModel.getJarFileName(), "."));
+        if (getClassPathMode() == ClassPathMode.MANIFEST_JAR) {
+            runtimeStage.copy(null, Arrays.asList(CLASS_PATH_JAR, "."));
+        }
+        this.dockerModel.getImageEnv().forEach(runtimeStage::env);
+        addCopyFiles(runtimeStage);
+        if (this.dockerModel.isService() && this.dockerModel.getPorts().size() > 0) {
+            runtimeStage.expose(this.dockerModel.getPorts().stream().map(String::valueOf)
+                    .collect(Collectors.toList()));
+        }
+        if (getFinalBaseImage().equals(DockerGenConstants.OPENJDK_11_JRE_SLIM_BASE)) {
+            runtimeStage.user("ballerina");
+        }
+        if (isAppCdsEnabled()) {
+            runtimeStage.copy(BUILDER_STAGE, Arrays.asList(CDS_ARCHIVE_FILE, "."));
+        }
+        if (isJlinkRuntimeEnabled()) {
+            // run as the non-root user of distroless images, numeric so that it works without a passwd entry
+            runtimeStage.user(String.valueOf(NON_ROOT_UID));
+        }
+        String cmd = getCmdInstruction();
+        if (!isBlank(this.dockerModel.getCommandArg()) && !isExecFormCmd()) {
+            cmd += this.dockerModel.getCommandArg();
+        }
+        runtimeStage.cmd(cmd);
+        return dockerfileModel;
+    }
+
+    /**
+     * Add the stages of a native image. The builder stage compiles the executable jar and the dependency jars into a
+     * native executable with GraalVM, using the reflection and resource configuration generated from the module. The
+     * runtime stage only contains the executable, which is run as the non-root user of the distroless base image.
+     *
+     * @param dockerfileModel Dockerfile model
+     * @param jarLayers       dependency jar layers
+     */
+    private void addNativeImageStages(DockerfileModel dockerfileModel, List<JarLayerModel> jarLayers) {
+        DockerfileModel.Stage builderStage = dockerfileModel.addStage(this.dockerModel.getNativeBuilderImage(),
+                BUILDER_STAGE);
+        builderStage.workDir();
+        List<Path> dependencyJars = new ArrayList<>();
+        jarLayers.forEach(jarLayer -> dependencyJars.addAll(jarLayer.getJars()));
+        builderStage.copy(null, toCopyPaths(dependencyJars, "jars/"));
+        builderStage.copy(null, Arrays.asList(this.dockerModel.getJarFileName(), "."));
+        builderStage.copy(null, Arrays.asList(NATIVE_IMAGE_CONFIG_DIR, NATIVE_IMAGE_CONFIG_DIR + "/"));
+        String nativeImageArgs = isBlank(this.dockerModel.getNativeImageArgs()) ? "" :
+                this.dockerModel.getNativeImageArgs().trim() + " ";
+        builderStage.run("native-image --no-fallback -H:ConfigurationFileDirectories=" + NATIVE_IMAGE_CONFIG_DIR +
+                " -cp \"" + this.dockerModel.getJarFileName() + ":jars/*\" " + nativeImageArgs + "-o " +
+                NATIVE_EXECUTABLE + " '" + getNativeMainClass() + "'");
+
+        DockerfileModel.Stage runtimeStage = dockerfileModel.addStage(getFinalBaseImage(), null);
+        runtimeStage.label("maintainer", "dev@ballerina.io");
+        runtimeStage.workDir();
+        runtimeStage.copy(BUILDER_STAGE, Arrays.asList(NATIVE_EXECUTABLE, "."));
+        // JVM options of the profile do not apply to a native executable
+        this.dockerModel.getEnv().forEach(runtimeStage::env);
+        addCopyFiles(runtimeStage);
+        if (this.dockerModel.isService() && this.dockerModel.getPorts().size() > 0) {
+            runtimeStage.expose(this.dockerModel.getPorts().stream().map(String::valueOf)
+                    .collect(Collectors.toList()));
+        }
+        runtimeStage.user(String.valueOf(NON_ROOT_UID));
+        String cmd = getCmdInstruction();
+        if (!isBlank(this.dockerModel.getCommandArg()) && !isExecFormCmd()) {
+            cmd += this.dockerModel.getCommandArg();
+        }
+        runtimeStage.cmd(cmd);
+    }
+
+    private boolean isNativeImageEnabled() {
+        return this.dockerModel.isNativeImage() && !isWindowsBuild();
+    }
+
+    private boolean isJlinkRuntimeEnabled() {
+        return this.dockerModel.isJlinkRuntime() && !isWindowsBuild() && !isNativeImageEnabled();
+    }
+
+    private boolean isExecFormCmd() {
+        return (isJlinkRuntimeEnabled() || isNativeImageEnabled()) && isBlank(this.dockerModel.getCmd());
+    }
+
+    private String getFinalBaseImage() {
+        if (isNativeImageEnabled()) {
+            return this.dockerModel.getNativeBaseImage();
+        }
+        return isJlinkRuntimeEnabled() ? this.dockerModel.getRuntimeBaseImage() : this.dockerModel.getBaseImage();
+    }
+
+    private String getJavaCommand() {
+        return isJlinkRuntimeEnabled() ? JLINK_RUNTIME_DIR + "/bin/java" : "java";
+    }
+
+    /**
+     * Add the builder stage. When a runtime is linked, jdeps finds the JDK modules used by the executable jar and its
+     * dependencies and jlink links a runtime with only those modules. All SE modules are linked if jdeps cannot resolve
+     * the dependencies. When class data sharing is enabled, a training run of the module records the loaded classes
+     * and dumps them to an archive. The training run is stopped after the configured time, so services are trained as
+     * well.
+     *
+     * @param dockerfileModel Dockerfile model
+     * @param jarLayers       dependency jar layers
+     */
+    private void addBuilderStage(DockerfileModel dockerfileModel, List<JarLayerModel> jarLayers) {
+        // the archive only works with the runtime that dumped it, so the base image is kept unless a runtime is linked
+        String builderBaseImage = isJlinkRuntimeEnabled() ? this.dockerModel.getJdkImage() :
+                this.dockerModel.getBaseImage();
+        DockerfileModel.Stage builderStage = dockerfileModel.addStage(builderBaseImage, BUILDER_STAGE);
+        builderStage.workDir();
+        List<Path> dependencyJars = new ArrayList<>();
+        jarLayers.forEach(jarLayer -> dependencyJars.addAll(jarLayer.getJars()));
+        builderStage.copy(null, toCopyPaths(dependencyJars, "jars/"));
+        builderStage.copy(null, Arrays.asList(this.dockerModel.getJarFileName(), "."));
+        if (getClassPathMode() == ClassPathMode.MANIFEST_JAR) {
+            builderStage.copy(null, Arrays.asList(CLASS_PATH_JAR, "."));
+        }
+        if (isJlinkRuntimeEnabled()) {
+            String modules = "$(cat modules.txt),jdk.crypto.ec" +
+                    (this.dockerModel.isEnableDebug() ? ",jdk.jdwp.agent" : "");
+            builderStage.run("jdeps --ignore-missing-deps --print-module-deps --multi-release base -q --recursive " +
+                    "--class-path \"$(echo jars/*.jar | tr ' ' ':')\" " + this.dockerModel.getJarFileName() +
+                    " > modules.txt || echo java.se > modules.txt");
+            builderStage.run("jlink --add-modules \"" + modules + "\" --strip-debug --no-man-pages " +
+                    "--no-header-files --compress=2 --output " + JLINK_RUNTIME_DIR);
+        }
+        if (isAppCdsEnabled()) {
+            String classPath = "-cp \"" + getClassPath() + "\"";
+            addCopyFiles(builderStage);
+            // JVM profile options are left out as the archive can only be dumped with compressed oops on older JVMs
+            this.dockerModel.getEnv().forEach(builderStage::env);
+            builderStage.run(getJavaCommand() + " -XX:DumpLoadedClassList=classes.lst " + classPath + " " +
+                    getMainClass() + " & pid=$!; sleep " + this.dockerModel.getCdsTrainingSeconds() +
+                    "; kill $pid 2>/dev/null; wait $pid; true");
+            builderStage.run(getJavaCommand() + " -Xshare:dump -XX:SharedClassListFile=classes.lst " +
+                    "-XX:SharedArchiveFile=" + CDS_ARCHIVE_FILE + " " + classPath);
+        }
+    }
+
+    private List<String> toCopyPaths(List<Path> sources, String destination) {
+        List<String> paths = new ArrayList<>(sources.size() + 1);
+        for (Path source : sources) {
+            paths.add(String.valueOf(source.getFileName()));
+        }
+        paths.add(destination);
+        return paths;
+    }
+
+    private void addCopyFiles(DockerfileModel.Stage stage) {
+        // Extract the source filename relative to docker folder.
+        this.dockerModel.getCopyFiles().forEach(file -> stage.copy(null,
+                Arrays.asList(String.valueOf(Paths.get(file.getSource()).getFileName()), file.getTarget())));
+    }
+
+    private boolean isAppCdsEnabled() {
+        return this.dockerModel.isAppCds() && !isWindowsBuild() && !isNativeImageEnabled();
+    }
+
+    /**
+     * Get the CMD instruction of the image. The user given command is used if available.
+     *
+     * @return CMD instruction without the command arguments
+     */
+    private String getCmdInstruction() {
+        if (!isBlank(this.dockerModel.getCmd())) {
+            return this.dockerModel.getCmd();
+        }
+        if (isNativeImageEnabled()) {
+            List<String> command = new ArrayList<>();
+            // exec form commands are resolved against the working directory of the image
+            command.add("./" + NATIVE_EXECUTABLE);
+            if (!isBlank(this.dockerModel.getCommandArg())) {
+                command.addAll(Arrays.asList(this.dockerModel.getCommandArg().trim().split("\\s+")));
             }
-        } else {
-            dockerfileContent.append(this.dockerModel.getCmd());
+            return toExecFormCmd(command);
+        }
+        final String mainClass = getMainClass();
+        if (isExecFormCmd()) {
+            return getExecFormCmdInstruction(mainClass);
         }
-        dockerfileContent.append(System.lineSeparator());
-        if (!DockerGenUtils.isBlank(this.dockerModel.getCommandArg())) {
-            dockerfileContent.append(this.dockerModel.getCommandArg());
+        String javaOptions = isAppCdsEnabled() ? "-Xdiag -XX:SharedArchiveFile=" + CDS_ARCHIVE_FILE : "-Xdiag";
+        if (this.dockerModel.isEnableDebug()) {
+            return "CMD java " + javaOptions + " -agentlib:jdwp=transport=dt_socket,server=y,suspend=n,address='*:" +
+                    this.dockerModel.getDebugPort() + "' -cp \"" + getClassPath() + "\" " + mainClass;
         }
-        dockerfileContent.append(System.lineSeparator());
+        return "CMD java " + javaOptions + " -cp \"" + getClassPath() + "\" " + mainClass;
+    }
 
-        return dockerfileContent.toString();
+    /**
+     * Get the CMD instruction in exec form including the command arguments, for base images without a shell.
+     *
+     * @param mainClass quoted main class name
+     * @return CMD instruction
+     */
+    private String getExecFormCmdInstruction(String mainClass) {
+        List<String> command = new ArrayList<>();
+        command.add(getJavaCommand());
+        command.add("-Xdiag");
+        if (isAppCdsEnabled()) {
+            command.add("-XX:SharedArchiveFile=" + CDS_ARCHIVE_FILE);
+        }
+        if (this.dockerModel.isEnableDebug()) {
+            command.add("-agentlib:jdwp=transport=dt_socket,server=y,suspend=n,address=*:" +
+                    this.dockerModel.getDebugPort());
+        }
+        command.add("-cp");
+        command.add(getClassPath());
+        command.add(mainClass.substring(1, mainClass.length() - 1));
+        if (!isBlank(this.dockerModel.getCommandArg())) {
+            command.addAll(Arrays.asList(this.dockerModel.getCommandArg().trim().split("\\s+")));
+        }
+        return toExecFormCmd(command);
     }
 
-    private void appendCommonCommands(StringBuilder dockerfileContent) {
-        dockerfileContent.append("COPY ").append(this.dockerModel.getJarFileName()).append(" ").append(getWorkDir())
-                .append(System.lineSeparator());
-        this.dockerModel.getEnv().forEach((key, value) -> dockerfileContent.append("ENV ").
-                append(key).append("=").append(value).append(System.lineSeparator()));
+    private String toExecFormCmd(List<String> command) {
+        return "CMD [" + command.stream()
+                .map(argument -> "\"" + argument.replace("\\", "\\\\").replace("\"", "\\\"") + "\"")
+                .collect(Collectors.joining(", ")) + "]";
+    }
 
-        this.dockerModel.getCopyFiles().forEach(file -> {
-            // Extract the source filename relative to docker folder.
-            String sourceFileName = String.valueOf(Paths.get(file.getSource()).getFileName());
-            dockerfileContent.append("COPY ")
-                    .append(sourceFileName)
-                    .append(" ")
-                    .append(file.getTarget())
-                    .append(System.lineSeparator());
-        });
+    private String getClassPath() {
+        switch (getClassPathMode()) {
+            case MANIFEST_JAR:
+                return CLASS_PATH_JAR;
+            case EXPLICIT:
+                return String.join(":", getClassPathEntries());
+            default:
+                return this.dockerModel.getJarFileName() + ":jars/*";
+        }
+    }
 
-        dockerfileContent.append(System.lineSeparator());
+    private ClassPathMode getClassPathMode() {
+        if (isNativeImageEnabled()) {
+            // the class path is only used to build the executable, the wildcard is expanded by native-image
+            return ClassPathMode.WILDCARD;
+        }
+        ClassPathMode classPathMode = this.dockerModel.getClassPathMode();
+        if (isAppCdsEnabled() && classPathMode == ClassPathMode.WILDCARD) {
+            // class data sharing archives are only used with the class path they were dumped with, so the jars are
+            // listed in a fixed order instead of relying on the order of the wildcard expansion
+            return ClassPathMode.EXPLICIT;
+        }
+        return classPathMode;
+    }
 
-        if (this.dockerModel.isService() && this.dockerModel.getPorts().size() > 0) {
-            dockerfileContent.append("EXPOSE ");
-            this.dockerModel.getPorts().forEach(port -> dockerfileContent.append(" ").append(port));
+    /**
+     * Get the class path entries relative to the working directory. The executable jar is followed by the dependency
+     * jars in the order of their layers, so the Ballerina runtime jars used at startup are found first.
+     *
+     * @return class path entries
+     */
+    private List<String> getClassPathEntries() {
+        List<String> classPath = new ArrayList<>();
+        classPath.add(this.dockerModel.getJarFileName());
+        planJarLayers().forEach(jarLayer -> jarLayer.getJars()
+                .forEach(jar -> classPath.add("jars/" + jar.getFileName())));
+        return classPath;
+    }
+
+    /**
+     * Create the class path jar of the image, along with its package index if enabled.
+     *
+     * @param jarFilePath executable jar file path
+     * @return class path jar content, null if the image does not use a class path jar
+     * @throws DockerGenException if a jar cannot be indexed
+     */
+    private byte[] createClassPathJar(Path jarFilePath) throws DockerGenException {
+        if (getClassPathMode() != ClassPathMode.MANIFEST_JAR) {
+            return null;
+        }
+        Map<String, Path> indexedJars = new LinkedHashMap<>();
+        if (this.dockerModel.isClassPathIndex()) {
+            indexedJars.put(this.dockerModel.getJarFileName(), jarFilePath);
+            planJarLayers().forEach(jarLayer -> jarLayer.getJars()
+                    .forEach(jar -> indexedJars.put("jars/" + jar.getFileName(), jar)));
+        }
+        try {
+            return ClassPathJar.create(CLASS_PATH_JAR, getClassPathEntries(), indexedJars);
+        } catch (IOException e) {
+            throw new DockerGenException("unable to create the class path jar: " + e.getMessage());
         }
-        dockerfileContent.append(System.lineSeparator());
-        if (this.dockerModel.getBaseImage().equals(DockerGenConstants.OPENJDK_11_JRE_SLIM_BASE)) {
-            dockerfileContent.append("USER ballerina").append("\n");
-            dockerfileContent.append(System.lineSeparator());
+    }
+
+    private String getMainClass() {
+        PackageID packageID = this.dockerModel.getPkgId();
+        return getModuleLevelClassName(packageID.orgName.value, packageID.name.value, packageID.version.value);
+    }
+
+    private String getNativeMainClass() {
+        // native-image expects the binary name of the main class without the shell quotes
+        String mainClass = getMainClass();
+        return mainClass.substring(1, mainClass.length() - 1).replace('/', '.');
+    }
+
+    private void addUser(DockerfileModel.Stage stage) {
+        if (getFinalBaseImage().equals(DockerGenConstants.OPENJDK_11_JRE_SLIM_BASE)) {
+            // fixed ids so that images written without a docker daemon run as the same user
+            stage.run("addgroup -g " + TROUPE_GID + " troupe",
+                    "adduser -S -u " + BALLERINA_UID + " -s /bin/bash -g 'ballerina' -G troupe -D ballerina",
+                    "apk add --update --no-cache bash",
+                    "chown -R ballerina:troupe /usr/bin/java",
+                    "rm -rf /var/cache/apk/*");
         }
     }
 
+    private List<JarLayerModel> planJarLayers() {
+        return new JarLayerPlanner(this.dockerModel.getMaxLayersPerGroup())
+                .plan(this.dockerModel.getDependencyJars());
+    }
+
     private boolean isWindowsBuild() {
-        return Boolean.parseBoolean(System.getenv(DockerGenConstants.ENABLE_WINDOWS_BUILD));
+        return this.dockerModel.isWindowsBuild();
     }
 
-    private String getWorkDir() {
-        return isWindowsBuild() ? "C:\\ballerina\\home\\" : "/home/ballerina";
+    /**
+     * Artifacts staged in the output directory, along with what is needed to build the image from them.
+     */
+    class StagedArtifacts {
+        private final Path jarFilePath;
+        private final Path outputDir;
+        private String dockerContent;
+        private byte[] classPathJar;
+        private NativeImageConfig nativeImageConfig;
+        private final boolean daemonlessBuild;
+        private final boolean streamBuildContext;
+        private final ArtifactManifest manifest;
+        private final BuildMetrics metrics;
+        private final long startTime;
+        private int stepCount;
+
+        StagedArtifacts(Path jarFilePath, Path outputDir, BuildMetrics metrics, long startTime) {
+            this.jarFilePath = jarFilePath;
+            this.outputDir = outputDir;
+            this.daemonlessBuild = dockerModel.isBuildImage() && dockerModel.isDaemonlessBuild();
+            this.streamBuildContext = dockerModel.isBuildImage() && !this.daemonlessBuild &&
+                    dockerModel.isStreamBuildContext();
+            this.manifest = dockerModel.isIncrementalBuild() ? ArtifactManifest.load(outputDir) : null;
+            this.metrics = metrics;
+            this.startTime = startTime;
+        }
     }
 
     /**
@@ -432,8 +1162,21 @@ public class DockerArtifactHandler {
         }
     }
 
+    /**
+     * Completes the build future from the response of the docker daemon.
+     */
     private class DockerBuildImageCallback extends BuildImageResultCallback {
 
+        private final CompletableFuture<ImageResult> result = new CompletableFuture<>();
+        private final DockerError buildError = new DockerError();
+        private final BuildProgressListener listener;
+        private final BuildContext buildContext;
+
+        DockerBuildImageCallback(BuildProgressListener listener, BuildContext buildContext) {
+            this.listener = listener;
+            this.buildContext = buildContext;
+        }
+
         @Override
         public void onNext(BuildResponseItem item) {
             // handling error
@@ -450,7 +1193,7 @@ public class DockerArtifactHandler {
 
                 String errorMessage = errString.toString();
                 printDebug(errorMessage);
-                dockerBuildError.setErrorMsg("unable to build docker image: " + errorMessage);
+                this.buildError.setErrorMsg("unable to build docker image: " + errorMessage);
             }
 
             String streamLog = item.getStream();
@@ -468,16 +1211,38 @@ public class DockerArtifactHandler {
                 printDebug("[build][image-id]: " + imageIdLog);
             }
 
+            if (null != this.listener) {
+                try {
+                    this.listener.onProgress(item);
+                } catch (RuntimeException e) {
+                    printDebug("docker build progress listener failed: " + e.getMessage());
+                }
+            }
+
             super.onNext(item);
         }
 
         @Override
         public void onError(Throwable throwable) {
             printDebug(throwable.getMessage());
-            try {
-                super.close();
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+            this.result.completeExceptionally(toBuildException(throwable));
+        }
+
+        @Override
+        public void onComplete() {
+            super.onComplete();
+            IOException contextError = null != this.buildContext ? this.buildContext.getError() : null;
+            if (this.buildError.isError()) {
+                this.result.completeExceptionally(new DockerGenException(this.buildError.getErrorMsg()));
+            } else if (null != contextError) {
+                this.result.completeExceptionally(new DockerGenException("unable to stream docker build context: " +
+                        contextError.getMessage()));
+            } else {
+                try {
+                    this.result.complete(new ImageResult(dockerModel.getName(), awaitImageId()));
+                } catch (RuntimeException e) {
+                    this.result.completeExceptionally(toBuildException(e));
+                }
             }
         }
     }
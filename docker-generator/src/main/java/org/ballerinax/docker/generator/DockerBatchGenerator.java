@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator;
+
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.BatchImageModel;
+import org.ballerinax.docker.generator.models.BatchImageResult;
+import org.ballerinax.docker.generator.utils.DockerClientRegistry;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.getErrorMessage;
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.printDebug;
+
+/**
+ * Generates the docker artifacts and images of many modules in one process.
+ *
+ * Images with the same docker settings share a docker client of the {@link DockerClientRegistry}. Artifacts of the
+ * images are staged concurrently and each image is built as soon as its artifacts are staged, with a bounded number of
+ * builds running against the docker daemon at once. The images share one set of staging permits, so the batch copies
+ * no more files at once than the largest staging concurrency of its images.
+ */
+public class DockerBatchGenerator {
+
+    private static final PrintStream NO_PROGRESS = new PrintStream(OutputStream.nullOutputStream());
+
+    private final int stagingConcurrency;
+    private final int buildConcurrency;
+
+    public DockerBatchGenerator(int stagingConcurrency, int buildConcurrency) {
+        this.stagingConcurrency = Math.max(1, stagingConcurrency);
+        this.buildConcurrency = Math.max(1, buildConcurrency);
+    }
+
+    /**
+     * Generate the artifacts and images of the given models. A failure of an image does not stop the other images.
+     *
+     * @param outStream output stream to report the outcome of each image
+     * @param images    images to generate
+     * @return outcome of each image, in the given order
+     */
+    public List<BatchImageResult> generate(PrintStream outStream, List<BatchImageModel> images) {
+        if (images.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ExecutorService stagingPool = createPool(this.stagingConcurrency, "docker-batch-staging");
+        ExecutorService buildPool = createPool(this.buildConcurrency, "docker-batch-build");
+        Semaphore stagingPermits = new Semaphore(Math.max(1, images.stream()
+                .mapToInt(image -> image.getDockerModel().getStagingConcurrency()).max().orElse(1)), true);
+        try {
+            List<CompletableFuture<BatchImageResult>> results = new ArrayList<>();
+            for (BatchImageModel image : images) {
+                BatchImage batchImage = new BatchImage(image, stagingPermits);
+                results.add(CompletableFuture.runAsync(batchImage::stage, stagingPool)
+                        .thenApplyAsync(staged -> batchImage.build(), buildPool));
+            }
+            List<BatchImageResult> imageResults = results.stream().map(CompletableFuture::join)
+                    .collect(Collectors.toList());
+            imageResults.forEach(result -> outStream.println("\t@docker:Batch - " + result.getImageName() +
+                    (result.isSuccess() ? " generated" : " failed: " + result.getErrorMessage()) + " (staging " +
+                    result.getStagingTime().toMillis() + " ms, build " + result.getBuildTime().toMillis() + " ms)"));
+            return imageResults;
+        } finally {
+            stagingPool.shutdownNow();
+            buildPool.shutdownNow();
+        }
+    }
+
+    private static ExecutorService createPool(int poolSize, String threadName) {
+        return Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * State of an image while it is staged and built.
+     */
+    private static class BatchImage {
+        private final BatchImageModel image;
+        private final Semaphore stagingPermits;
+        private String imageName;
+        private DockerArtifactHandler handler;
+        private DockerArtifactHandler.StagedArtifacts artifacts;
+        private Throwable error;
+        private Duration stagingTime = Duration.ZERO;
+
+        BatchImage(BatchImageModel image, Semaphore stagingPermits) {
+            this.image = image;
+            this.stagingPermits = stagingPermits;
+            this.imageName = image.getDockerModel().getName();
+        }
+
+        void stage() {
+            long start = System.nanoTime();
+            try {
+                this.handler = new DockerArtifactHandler(this.image.getDockerModel());
+                this.handler.setStagingPermits(this.stagingPermits);
+                this.imageName = this.image.getDockerModel().getName();
+                this.artifacts = this.handler.stageArtifacts(NO_PROGRESS, "", this.image.getJarFilePath(),
+                        this.image.getOutputDir());
+            } catch (DockerGenException | RuntimeException e) {
+                this.error = e;
+                printDebug("unable to stage the artifacts of `" + this.imageName + "`: " + getErrorMessage(e));
+            }
+            this.stagingTime = Duration.ofNanos(System.nanoTime() - start);
+        }
+
+        BatchImageResult build() {
+            long start = System.nanoTime();
+            if (null == this.error) {
+                try {
+                    this.handler.buildStagedArtifacts(NO_PROGRESS, "", this.artifacts);
+                    this.handler.reportBuildMetrics(NO_PROGRESS, "", this.artifacts);
+                } catch (DockerGenException | RuntimeException e) {
+                    this.error = e;
+                }
+            }
+            Duration buildTime = null == this.artifacts ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - start);
+            return new BatchImageResult(this.imageName, this.error, this.stagingTime, buildTime);
+        }
+    }
+}
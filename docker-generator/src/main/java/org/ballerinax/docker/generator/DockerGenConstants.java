@@ -25,10 +25,36 @@ public class DockerGenConstants {
     public static final String ENABLE_DEBUG_LOGS = "BAL_DOCKER_DEBUG";
     public static final String DOCKER_API_VERSION = "DOCKER_API_VERSION";
     public static final String ENABLE_WINDOWS_BUILD = "BAL_DOCKER_WINDOWS";
+    public static final String CI_BUILD = "CI_BUILD";
     public static final String EXECUTABLE_JAR = ".jar";
     public static final String REGISTRY_SEPARATOR = "/";
     public static final String TAG_SEPARATOR = ":";
     public static final String OPENJDK_11_JRE_SLIM_BASE = "ballerina/jre11:v1";
     public static final String OPENJDK_11_JRE_WINDOWS_BASE_IMAGE = "openjdk:11-windowsservercore";
+    public static final int MAX_JAR_LAYERS_PER_GROUP = 8;
+    public static final String OCI_IMAGE_LAYOUT_DIR = "oci-image";
+    public static final long DEFAULT_LAYER_CACHE_MAX_SIZE = 2L * 1024 * 1024 * 1024;
+    public static final String ARTIFACT_MANIFEST = ".docker-artifacts.json";
+    public static final int DEFAULT_STAGING_CONCURRENCY = 8;
+    public static final String CONTEXT_REPORT_FILE = "context-report.json";
+    public static final String BUILD_METRICS_FILE = "build-metrics.json";
+    public static final String JAVA_TOOL_OPTIONS = "JAVA_TOOL_OPTIONS";
+    public static final String BUILDER_STAGE = "builder";
+    public static final String CDS_ARCHIVE_FILE = "app.jsa";
+    public static final int DEFAULT_CDS_TRAINING_SECONDS = 10;
+    public static final String OPENJDK_11_JDK_IMAGE = "eclipse-temurin:11-jdk";
+    public static final String DISTROLESS_RUNTIME_BASE_IMAGE = "gcr.io/distroless/java-base-debian12";
+    public static final String JLINK_RUNTIME_DIR = "/opt/java/minimal";
+    public static final int NON_ROOT_UID = 65532;
+    public static final int BALLERINA_UID = 10001;
+    public static final int TROUPE_GID = 10001;
+    public static final String CLASS_PATH_JAR = "classpath.jar";
+    public static final String GRAALVM_NATIVE_IMAGE_BUILDER = "ghcr.io/graalvm/native-image-community:17";
+    public static final String DISTROLESS_NATIVE_BASE_IMAGE = "gcr.io/distroless/base-debian12";
+    public static final String NATIVE_IMAGE_CONFIG_DIR = "native-image";
+    public static final String NATIVE_EXECUTABLE = "app";
+    public static final int DEFAULT_DOCKER_MAX_CONNECTIONS = 100;
+    public static final int DEFAULT_DOCKER_CONNECTION_TIMEOUT_SECONDS = 60;
+    public static final int DEFAULT_DOCKER_RESPONSE_TIMEOUT_SECONDS = 60;
 
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.events;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Progress event of a docker image build.
+ */
+@Getter
+public class BuildEvent {
+    private final Type type;
+    private final String imageName;
+    private final int step;
+    private final int totalSteps;
+    private final String instruction;
+    private final boolean cached;
+    private final int cachedSteps;
+    private final long bytes;
+    private final long totalBytes;
+    private final Duration duration;
+    private final String errorMessage;
+
+    private BuildEvent(Type type, String imageName, int step, int totalSteps, String instruction, boolean cached,
+                       int cachedSteps, long bytes, long totalBytes, Duration duration, String errorMessage) {
+        this.type = type;
+        this.imageName = imageName;
+        this.step = step;
+        this.totalSteps = totalSteps;
+        this.instruction = instruction;
+        this.cached = cached;
+        this.cachedSteps = cachedSteps;
+        this.bytes = bytes;
+        this.totalBytes = totalBytes;
+        this.duration = duration;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Create an event for a Dockerfile instruction which the daemon started to run.
+     *
+     * @param imageName   image name
+     * @param step        step number of the instruction, starting from 1
+     * @param totalSteps  number of steps of the build
+     * @param instruction Dockerfile instruction
+     * @return build event
+     */
+    public static BuildEvent stepStarted(String imageName, int step, int totalSteps, String instruction) {
+        return new BuildEvent(Type.STEP_STARTED, imageName, step, totalSteps, instruction, false, 0, 0, 0,
+                Duration.ZERO, null);
+    }
+
+    /**
+     * Create an event for a Dockerfile instruction which produced its layer.
+     *
+     * @param imageName   image name
+     * @param step        step number of the instruction, starting from 1
+     * @param totalSteps  number of steps of the build
+     * @param instruction Dockerfile instruction
+     * @param cached      true if the layer was taken from the build cache instead of being rebuilt
+     * @param duration    time taken by the instruction
+     * @return build event
+     */
+    public static BuildEvent stepFinished(String imageName, int step, int totalSteps, String instruction,
+                                          boolean cached, Duration duration) {
+        return new BuildEvent(Type.STEP_FINISHED, imageName, step, totalSteps, instruction, cached, cached ? 1 : 0,
+                0, 0, duration, null);
+    }
+
+    /**
+     * Create an event for a Dockerfile instruction which was running when the build failed.
+     *
+     * @param imageName    image name
+     * @param step         step number of the instruction, starting from 1
+     * @param totalSteps   number of steps of the build
+     * @param instruction  Dockerfile instruction
+     * @param duration     time the instruction ran for
+     * @param errorMessage error of the build
+     * @return build event
+     */
+    public static BuildEvent stepFailed(String imageName, int step, int totalSteps, String instruction,
+                                        Duration duration, String errorMessage) {
+        return new BuildEvent(Type.STEP_FAILED, imageName, step, totalSteps, instruction, false, 0, 0, 0, duration,
+                errorMessage);
+    }
+
+    /**
+     * Create an event for data transferred by the daemon, such as a base image layer being pulled.
+     *
+     * @param imageName  image name
+     * @param bytes      bytes transferred so far
+     * @param totalBytes bytes to transfer, -1 if unknown
+     * @return build event
+     */
+    public static BuildEvent transfer(String imageName, long bytes, long totalBytes) {
+        return new BuildEvent(Type.TRANSFER, imageName, 0, 0, null, false, 0, bytes, totalBytes, Duration.ZERO,
+                null);
+    }
+
+    /**
+     * Create an event for a completed build.
+     *
+     * @param imageName   image name
+     * @param totalSteps  number of steps run
+     * @param cachedSteps number of steps taken from the build cache
+     * @param duration    time taken by the build
+     * @return build event
+     */
+    public static BuildEvent buildFinished(String imageName, int totalSteps, int cachedSteps, Duration duration) {
+        return new BuildEvent(Type.BUILD_FINISHED, imageName, totalSteps, totalSteps, null, false, cachedSteps, 0, 0,
+                duration, null);
+    }
+
+    /**
+     * Create an event for a failed build.
+     *
+     * @param imageName    image name
+     * @param totalSteps   number of steps finished before the failure
+     * @param cachedSteps  number of steps taken from the build cache
+     * @param duration     time taken by the build
+     * @param errorMessage error of the build
+     * @return build event
+     */
+    public static BuildEvent buildFailed(String imageName, int totalSteps, int cachedSteps, Duration duration,
+                                         String errorMessage) {
+        return new BuildEvent(Type.BUILD_FAILED, imageName, totalSteps, totalSteps, null, false, cachedSteps, 0, 0,
+                duration, errorMessage);
+    }
+
+    /**
+     * Type of a build event.
+     */
+    public enum Type {
+        STEP_STARTED,
+        STEP_FINISHED,
+        STEP_FAILED,
+        TRANSFER,
+        BUILD_FINISHED,
+        BUILD_FAILED
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.events;
+
+import com.github.dockerjava.api.model.BuildResponseItem;
+import com.github.dockerjava.api.model.ResponseItem;
+import org.ballerinax.docker.generator.BuildProgressListener;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.getErrorMessage;
+
+/**
+ * Turns the build output streamed by the docker daemon into build events.
+ *
+ * The daemon reports each Dockerfile instruction as a {@code Step n/m : instruction} line, followed by
+ * {@code ---> Using cache} when the layer is reused and by the id of the resulting layer when the step is done. A
+ * line can be split over several response items, so the text after the last line break is kept until the line ends.
+ */
+public class BuildEventParser implements BuildProgressListener {
+
+    private static final Pattern STEP_PATTERN = Pattern.compile("^Step (\\d+)/(\\d+) : (.*)$");
+    private static final Pattern LAYER_PATTERN = Pattern.compile("^ ---> ([0-9a-f]{12,64})$");
+    private static final String USING_CACHE = " ---> Using cache";
+    private static final String BUILD_SUCCESS_PREFIX = "Successfully built ";
+
+    private final String imageName;
+    private final BuildEventSink sink;
+    private final long buildStart = System.nanoTime();
+    private final StringBuilder pendingLine = new StringBuilder();
+    private int step;
+    private int totalSteps;
+    private String instruction;
+    private boolean cached;
+    private long stepStart;
+    private boolean stepRunning;
+    private int finishedSteps;
+    private int cachedSteps;
+    private boolean buildEnded;
+
+    public BuildEventParser(String imageName, BuildEventSink sink) {
+        this.imageName = imageName;
+        this.sink = sink;
+    }
+
+    @Override
+    public synchronized void onProgress(BuildResponseItem item) {
+        String stream = item.getStream();
+        if (null != stream) {
+            this.pendingLine.append(stream);
+            int lineEnd;
+            while ((lineEnd = this.pendingLine.indexOf("\n")) >= 0) {
+                onLine(this.pendingLine.substring(0, lineEnd).stripTrailing());
+                this.pendingLine.delete(0, lineEnd + 1);
+            }
+        }
+        ResponseItem.ProgressDetail progressDetail = item.getProgressDetail();
+        if (null != progressDetail && null != progressDetail.getCurrent()) {
+            Long total = progressDetail.getTotal();
+            this.sink.accept(BuildEvent.transfer(this.imageName, progressDetail.getCurrent(),
+                    null == total ? -1 : total));
+        }
+    }
+
+    /**
+     * Called once the build has completed, to end the build with a finished or a failed event if the build output did
+     * not end it.
+     *
+     * @param error error of the build, null if the build succeeded
+     */
+    public synchronized void onBuildCompleted(Throwable error) {
+        if (this.pendingLine.length() > 0) {
+            onLine(this.pendingLine.toString().stripTrailing());
+            this.pendingLine.setLength(0);
+        }
+        if (null == error) {
+            finishStep();
+            finishBuild();
+            return;
+        }
+        if (this.buildEnded) {
+            return;
+        }
+        this.buildEnded = true;
+        String errorMessage = getErrorMessage(error);
+        if (this.stepRunning) {
+            this.stepRunning = false;
+            this.sink.accept(BuildEvent.stepFailed(this.imageName, this.step, this.totalSteps, this.instruction,
+                    Duration.ofNanos(System.nanoTime() - this.stepStart), errorMessage));
+        }
+        this.sink.accept(BuildEvent.buildFailed(this.imageName, this.finishedSteps, this.cachedSteps,
+                Duration.ofNanos(System.nanoTime() - this.buildStart), errorMessage));
+    }
+
+    private void onLine(String line) {
+        Matcher stepMatcher = STEP_PATTERN.matcher(line);
+        if (stepMatcher.matches()) {
+            finishStep();
+            this.step = Integer.parseInt(stepMatcher.group(1));
+            this.totalSteps = Integer.parseInt(stepMatcher.group(2));
+            this.instruction = stepMatcher.group(3);
+            this.cached = false;
+            this.stepStart = System.nanoTime();
+            this.stepRunning = true;
+            this.sink.accept(BuildEvent.stepStarted(this.imageName, this.step, this.totalSteps, this.instruction));
+        } else if (USING_CACHE.equals(line)) {
+            this.cached = true;
+        } else if (LAYER_PATTERN.matcher(line).matches()) {
+            finishStep();
+        } else if (line.startsWith(BUILD_SUCCESS_PREFIX)) {
+            finishStep();
+            finishBuild();
+        }
+    }
+
+    private void finishBuild() {
+        if (this.buildEnded) {
+            return;
+        }
+        this.buildEnded = true;
+        this.sink.accept(BuildEvent.buildFinished(this.imageName, this.finishedSteps, this.cachedSteps,
+                Duration.ofNanos(System.nanoTime() - this.buildStart)));
+    }
+
+    private void finishStep() {
+        if (!this.stepRunning) {
+            return;
+        }
+        this.stepRunning = false;
+        this.finishedSteps++;
+        if (this.cached) {
+            this.cachedSteps++;
+        }
+        this.sink.accept(BuildEvent.stepFinished(this.imageName, this.step, this.totalSteps, this.instruction,
+                this.cached, Duration.ofNanos(System.nanoTime() - this.stepStart)));
+    }
+}
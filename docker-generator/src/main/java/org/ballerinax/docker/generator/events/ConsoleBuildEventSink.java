@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.events;
+
+import java.io.PrintStream;
+
+/**
+ * Prints the finished steps and builds to the console.
+ */
+public class ConsoleBuildEventSink implements BuildEventSink {
+
+    private final PrintStream outStream;
+    private final String logAppender;
+
+    public ConsoleBuildEventSink(PrintStream outStream, String logAppender) {
+        this.outStream = outStream;
+        this.logAppender = logAppender;
+    }
+
+    @Override
+    public void accept(BuildEvent event) {
+        switch (event.getType()) {
+            case STEP_FINISHED:
+                this.outStream.println(this.logAppender + " - step " + event.getStep() + "/" + event.getTotalSteps() +
+                        " " + event.getInstruction() + (event.isCached() ? " (cached, " : " (") +
+                        event.getDuration().toMillis() + " ms)");
+                break;
+            case BUILD_FINISHED:
+                this.outStream.println(this.logAppender + " - built " + event.getImageName() + " in " +
+                        event.getDuration().toMillis() + " ms, " + event.getCachedSteps() + "/" +
+                        event.getTotalSteps() + " steps cached");
+                break;
+            case BUILD_FAILED:
+                this.outStream.println(this.logAppender + " - failed to build " + event.getImageName() + " after " +
+                        event.getDuration().toMillis() + " ms: " + event.getErrorMessage());
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps build events in memory.
+ */
+public class InMemoryBuildEventSink implements BuildEventSink {
+
+    private final List<BuildEvent> events = new ArrayList<>();
+
+    @Override
+    public synchronized void accept(BuildEvent event) {
+        this.events.add(event);
+    }
+
+    /**
+     * Get the events received so far.
+     *
+     * @return build events in the order they were received
+     */
+    public synchronized List<BuildEvent> getEvents() {
+        return new ArrayList<>(this.events);
+    }
+
+    /**
+     * Get the events of a type received so far.
+     *
+     * @param type event type
+     * @return build events of the type in the order they were received
+     */
+    public synchronized List<BuildEvent> getEvents(BuildEvent.Type type) {
+        return this.events.stream().filter(event -> event.getType() == type).collect(Collectors.toList());
+    }
+}
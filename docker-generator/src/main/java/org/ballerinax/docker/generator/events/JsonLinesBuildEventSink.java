@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.printDebug;
+
+/**
+ * Appends build events to a file as JSON lines, so that the events of many builds can be compared. Each line is flushed
+ * when it is written, so the file can be followed while the build runs and is complete if the build is aborted.
+ */
+public class JsonLinesBuildEventSink implements BuildEventSink, Closeable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path eventsFile;
+    private final Writer writer;
+
+    public JsonLinesBuildEventSink(Path eventsFile) throws IOException {
+        this.eventsFile = eventsFile;
+        this.writer = Files.newBufferedWriter(eventsFile, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void accept(BuildEvent event) {
+        ObjectNode eventNode = MAPPER.createObjectNode();
+        eventNode.put("time", System.currentTimeMillis());
+        eventNode.put("type", event.getType().name());
+        eventNode.put("image", event.getImageName());
+        eventNode.put("step", event.getStep());
+        eventNode.put("totalSteps", event.getTotalSteps());
+        if (null != event.getInstruction()) {
+            eventNode.put("instruction", event.getInstruction());
+        }
+        eventNode.put("cached", event.isCached());
+        eventNode.put("cachedSteps", event.getCachedSteps());
+        eventNode.put("bytes", event.getBytes());
+        eventNode.put("totalBytes", event.getTotalBytes());
+        eventNode.put("durationMillis", event.getDuration().toMillis());
+        if (null != event.getErrorMessage()) {
+            eventNode.put("error", event.getErrorMessage());
+        }
+        try {
+            this.writer.write(MAPPER.writeValueAsString(eventNode));
+            this.writer.write('\n');
+            this.writer.flush();
+        } catch (IOException e) {
+            printDebug("unable to write build event to `" + this.eventsFile + "`: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.writer.close();
+    }
+}
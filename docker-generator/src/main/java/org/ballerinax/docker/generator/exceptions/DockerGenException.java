@@ -26,4 +26,8 @@ public class DockerGenException extends Exception {
     public DockerGenException(String msg) {
         super(msg);
     }
+
+    public DockerGenException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.models;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * An image generated as part of a batch, along with the files it is generated from.
+ */
+@Getter
+public class BatchImageModel {
+    private final DockerModel dockerModel;
+    private final Path jarFilePath;
+    private final Path outputDir;
+
+    public BatchImageModel(DockerModel dockerModel, Path jarFilePath, Path outputDir) {
+        this.dockerModel = dockerModel;
+        this.jarFilePath = jarFilePath;
+        this.outputDir = outputDir;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.models;
+
+import lombok.Getter;
+import org.ballerinax.docker.generator.utils.DockerGenUtils;
+
+import java.time.Duration;
+
+/**
+ * Outcome of generating an image of a batch.
+ */
+@Getter
+public class BatchImageResult {
+    private final String imageName;
+    private final Throwable error;
+    private final String errorMessage;
+    private final Duration stagingTime;
+    private final Duration buildTime;
+
+    public BatchImageResult(String imageName, Throwable error, Duration stagingTime, Duration buildTime) {
+        this.imageName = imageName;
+        this.error = error;
+        this.errorMessage = null == error ? null : DockerGenUtils.getErrorMessage(error);
+        this.stagingTime = stagingTime;
+        this.buildTime = buildTime;
+    }
+
+    public boolean isSuccess() {
+        return null == this.error;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.models;
+
+/**
+ * How the class path of the image is passed to the JVM.
+ */
+public enum ClassPathMode {
+    /**
+     * The executable jar followed by a wildcard of the dependency jars directory, expanded by the JVM at startup.
+     */
+    WILDCARD,
+    /**
+     * The executable jar and the dependency jars listed in a fixed order, so that the JVM does not list the
+     * dependency jars directory at startup.
+     */
+    EXPLICIT,
+    /**
+     * A generated jar whose manifest Class-Path lists the executable jar and the dependency jars in a fixed order.
+     * Keeps the command line short for projects with many dependency jars.
+     */
+    MANIFEST_JAR
+}
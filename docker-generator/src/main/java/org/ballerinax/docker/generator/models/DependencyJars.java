@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.models;
+
+import org.ballerinax.docker.generator.models.JarLayerModel.LayerGroup;
+import org.ballerinax.docker.generator.utils.JarLayerPlanner;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Immutable snapshot of the dependency jars of an image.
+ *
+ * The jars are sorted once and classified into layer groups when the snapshot is taken, so the Dockerfile, build
+ * context and image layers are generated in a deterministic order without sorting or classifying the jars again.
+ */
+public class DependencyJars {
+
+    private static final Comparator<Path> FILE_NAME_ORDER = Comparator.comparing(Path::getFileName);
+
+    private final SortedSet<Path> paths;
+    private final List<Path> jars;
+    private final LayerGroup[] groups;
+    private final Map<LayerGroup, List<Path>> groupJars = new EnumMap<>(LayerGroup.class);
+    private final String appJarName;
+    private final String projectPrefix;
+
+    /**
+     * Take a snapshot of the given dependency jars.
+     *
+     * @param jarPaths      dependency jar paths
+     * @param appJarName    file name of the application jar, may be null
+     * @param projectPrefix file name prefix of the project module jars, may be null
+     */
+    public DependencyJars(Collection<Path> jarPaths, String appJarName, String projectPrefix) {
+        this.paths = Collections.unmodifiableSortedSet(new TreeSet<>(jarPaths));
+        this.jars = List.copyOf(this.paths);
+        this.groups = new LayerGroup[this.jars.size()];
+        this.appJarName = appJarName;
+        this.projectPrefix = projectPrefix;
+        Map<LayerGroup, TreeSet<Path>> groupSets = new EnumMap<>(LayerGroup.class);
+        for (LayerGroup group : LayerGroup.values()) {
+            // jars are copied to a single directory, so only the first jar of a file name is kept in a group
+            groupSets.put(group, new TreeSet<>(FILE_NAME_ORDER));
+        }
+        for (int i = 0; i < this.groups.length; i++) {
+            Path jar = this.jars.get(i);
+            this.groups[i] = JarLayerPlanner.classify(jar.getFileName().toString(), appJarName, projectPrefix);
+            groupSets.get(this.groups[i]).add(jar);
+        }
+        groupSets.forEach((group, groupSet) -> this.groupJars.put(group, List.copyOf(groupSet)));
+    }
+
+    /**
+     * Get the dependency jars as a set ordered by path.
+     *
+     * @return unmodifiable dependency jar paths
+     */
+    public SortedSet<Path> getPaths() {
+        return this.paths;
+    }
+
+    /**
+     * Get the dependency jars ordered by path.
+     *
+     * @return unmodifiable dependency jar paths
+     */
+    public List<Path> getJars() {
+        return this.jars;
+    }
+
+    /**
+     * Get the layer group of the jar at the given index of {@link #getJars()}.
+     *
+     * @param index jar index
+     * @return layer group of the jar
+     */
+    public LayerGroup getGroup(int index) {
+        return this.groups[index];
+    }
+
+    /**
+     * Get the jars of a layer group ordered by file name.
+     *
+     * @param group layer group
+     * @return unmodifiable jars of the group
+     */
+    public List<Path> getJars(LayerGroup group) {
+        return this.groupJars.get(group);
+    }
+
+    public int size() {
+        return this.jars.size();
+    }
+
+    /**
+     * Check whether the jars of the snapshot were classified for the given application jar and project.
+     *
+     * @param appJarName    file name of the application jar, may be null
+     * @param projectPrefix file name prefix of the project module jars, may be null
+     * @return true if the classification is still valid
+     */
+    public boolean isClassifiedFor(String appJarName, String projectPrefix) {
+        return Objects.equals(this.appJarName, appJarName) && Objects.equals(this.projectPrefix, projectPrefix);
+    }
+}
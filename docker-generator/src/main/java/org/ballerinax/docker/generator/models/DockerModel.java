@@ -18,21 +18,24 @@
 
 package org.ballerinax.docker.generator.models;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import org.ballerinalang.model.elements.PackageID;
 import org.ballerinax.docker.generator.DockerGenConstants;
+import org.ballerinax.docker.generator.events.BuildEventSink;
 import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.utils.JarLayerPlanner;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.stream.Collectors;
 
 import static org.ballerinax.docker.generator.DockerGenConstants.DOCKER_API_VERSION;
 
@@ -45,10 +48,18 @@ import static org.ballerinax.docker.generator.DockerGenConstants.DOCKER_API_VERS
 public class DockerModel {
     private final boolean windowsBuild =
             Boolean.parseBoolean(System.getenv(DockerGenConstants.ENABLE_WINDOWS_BUILD));
+    private final boolean ciBuild = "true".equals(System.getenv(DockerGenConstants.CI_BUILD));
     private String name;
     private String registry;
     private String tag;
     private boolean buildImage;
+    private boolean noCache;
+    private boolean incrementalBuild;
+    private boolean streamBuildContext;
+    private boolean daemonlessBuild;
+    private String baseImageLayout;
+    private String layerCacheDir;
+    private long layerCacheMaxSize;
     private String baseImage;
     private Set<Integer> ports;
     private boolean enableDebug;
@@ -63,13 +74,44 @@ public class DockerModel {
     private String cmd;
     private Map<String, String> env;
     private String dockerConfig;
+    private int dockerMaxConnections;
+    private int dockerConnectionTimeoutSeconds;
+    private int dockerResponseTimeoutSeconds;
+    private BuildEventSink buildEventSink;
+    private boolean buildMetrics;
     private Set<Path> dependencyJarPaths;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private volatile DependencyJars dependencyJars;
+    private int maxLayersPerGroup;
+    private int stagingConcurrency;
+    private long maxContextSize;
+    private long maxImageSize;
+    private JvmProfile jvmProfile;
+    private boolean appCds;
+    private int cdsTrainingSeconds;
+    private boolean jlinkRuntime;
+    private String jdkImage;
+    private String runtimeBaseImage;
+    private boolean nativeImage;
+    private String nativeBuilderImage;
+    private String nativeBaseImage;
+    private String nativeImageArgs;
+    private ClassPathMode classPathMode;
+    private boolean classPathIndex;
+    private boolean pruneUnusedJars;
+    private Set<String> keepJars;
     private PackageID pkgId;
 
     public DockerModel() {
         // Initialize with default values except for image name
         this.tag = "latest";
         this.buildImage = true;
+        this.noCache = false;
+        this.incrementalBuild = false;
+        this.streamBuildContext = false;
+        this.daemonlessBuild = false;
+        this.layerCacheMaxSize = DockerGenConstants.DEFAULT_LAYER_CACHE_MAX_SIZE;
         this.baseImage = windowsBuild ? DockerGenConstants.OPENJDK_11_JRE_WINDOWS_BASE_IMAGE :
                 DockerGenConstants.OPENJDK_11_JRE_SLIM_BASE;
         this.enableDebug = false;
@@ -79,6 +121,26 @@ public class DockerModel {
         commandArg = "";
         env = new HashMap<>();
         dependencyJarPaths = new TreeSet<>();
+        maxLayersPerGroup = DockerGenConstants.MAX_JAR_LAYERS_PER_GROUP;
+        stagingConcurrency = DockerGenConstants.DEFAULT_STAGING_CONCURRENCY;
+        jvmProfile = JvmProfile.DEFAULT;
+        appCds = false;
+        cdsTrainingSeconds = DockerGenConstants.DEFAULT_CDS_TRAINING_SECONDS;
+        jlinkRuntime = false;
+        jdkImage = DockerGenConstants.OPENJDK_11_JDK_IMAGE;
+        runtimeBaseImage = DockerGenConstants.DISTROLESS_RUNTIME_BASE_IMAGE;
+        nativeImage = false;
+        nativeBuilderImage = DockerGenConstants.GRAALVM_NATIVE_IMAGE_BUILDER;
+        nativeBaseImage = DockerGenConstants.DISTROLESS_NATIVE_BASE_IMAGE;
+        nativeImageArgs = "";
+        classPathMode = ClassPathMode.WILDCARD;
+        classPathIndex = false;
+        pruneUnusedJars = false;
+        keepJars = new HashSet<>();
+        buildMetrics = false;
+        dockerMaxConnections = DockerGenConstants.DEFAULT_DOCKER_MAX_CONNECTIONS;
+        dockerConnectionTimeoutSeconds = DockerGenConstants.DEFAULT_DOCKER_CONNECTION_TIMEOUT_SECONDS;
+        dockerResponseTimeoutSeconds = DockerGenConstants.DEFAULT_DOCKER_RESPONSE_TIMEOUT_SECONDS;
     }
 
     public void setDockerAPIVersion(String dockerAPIVersion) {
@@ -89,12 +151,49 @@ public class DockerModel {
         this.dockerAPIVersion = dockerAPIVersion;
     }
 
+    public void setDependencyJarPaths(Set<Path> paths) {
+        this.dependencyJarPaths = new TreeSet<>(paths);
+        this.dependencyJars = null;
+    }
+
     public void addDependencyJarPaths(Set<Path> paths) {
-        this.dependencyJarPaths.addAll(paths);
+        if (this.dependencyJarPaths.addAll(paths)) {
+            this.dependencyJars = null;
+        }
     }
 
     public Set<Path> getDependencyJarPaths() {
-        return this.dependencyJarPaths.stream().sorted().collect(Collectors.toSet());
+        return getDependencyJars().getPaths();
+    }
+
+    /**
+     * Get the sorted and classified snapshot of the dependency jars. The snapshot is taken again only when the
+     * dependency jars, the application jar or the package of the project change.
+     *
+     * @return dependency jars snapshot
+     */
+    public DependencyJars getDependencyJars() {
+        String projectPrefix = JarLayerPlanner.getProjectPrefix(this.pkgId);
+        DependencyJars snapshot = this.dependencyJars;
+        if (null == snapshot || !snapshot.isClassifiedFor(this.jarFileName, projectPrefix)) {
+            snapshot = new DependencyJars(this.dependencyJarPaths, this.jarFileName, projectPrefix);
+            this.dependencyJars = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get the environment variables of the image including the JVM options of the selected JVM profile. JVM options
+     * given by the user through JAVA_TOOL_OPTIONS take precedence over the profile.
+     *
+     * @return environment variables of the image
+     */
+    public Map<String, String> getImageEnv() {
+        Map<String, String> imageEnv = new LinkedHashMap<>(this.env);
+        if (null != this.jvmProfile && !this.jvmProfile.getJavaOptions().isEmpty()) {
+            imageEnv.putIfAbsent(DockerGenConstants.JAVA_TOOL_OPTIONS, this.jvmProfile.getJavaOptions());
+        }
+        return imageEnv;
     }
 
     public Set<CopyFileModel> getCopyFiles() {
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.models;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Structured multi-stage Dockerfile.
+ *
+ * Paths which are not absolute are relative to the working directory of the image, which is resolved when the model
+ * is rendered for the target platform. The last stage is the runtime stage of the image.
+ */
+@Getter
+public class DockerfileModel {
+    private final List<Stage> stages = new ArrayList<>();
+
+    /**
+     * Add a stage to the Dockerfile.
+     *
+     * @param baseImage base image or the name of a previous stage
+     * @param name      stage name, null for the runtime stage
+     * @return added stage
+     */
+    public Stage addStage(String baseImage, String name) {
+        Stage stage = new Stage(baseImage, name);
+        this.stages.add(stage);
+        return stage;
+    }
+
+    /**
+     * A build stage starting from a base image.
+     */
+    @Getter
+    public static class Stage {
+        private final String baseImage;
+        private final String name;
+        private final List<Instruction> instructions = new ArrayList<>();
+
+        Stage(String baseImage, String name) {
+            this.baseImage = baseImage;
+            this.name = name;
+        }
+
+        public Stage label(String key, String value) {
+            return add(new Instruction(InstructionType.LABEL, null, Arrays.asList(key, value)));
+        }
+
+        public Stage workDir() {
+            return add(new Instruction(InstructionType.WORKDIR, null, Collections.emptyList()));
+        }
+
+        /**
+         * Copy files from the build context, or from a previous stage if the stage name is given. The last argument is
+         * the destination.
+         *
+         * @param fromStage stage to copy from, null to copy from the build context
+         * @param paths     source paths followed by the destination path
+         * @return this stage
+         */
+        public Stage copy(String fromStage, List<String> paths) {
+            return add(new Instruction(InstructionType.COPY, fromStage, paths));
+        }
+
+        /**
+         * Run shell commands in a single layer. The commands are chained so that the layer fails if any command fails.
+         *
+         * @param commands shell commands
+         * @return this stage
+         */
+        public Stage run(String... commands) {
+            return add(new Instruction(InstructionType.RUN, null, Arrays.asList(commands)));
+        }
+
+        public Stage env(String key, String value) {
+            return add(new Instruction(InstructionType.ENV, null, Arrays.asList(key, value)));
+        }
+
+        public Stage expose(List<String> ports) {
+            return add(new Instruction(InstructionType.EXPOSE, null, ports));
+        }
+
+        public Stage user(String user) {
+            return add(new Instruction(InstructionType.USER, null, Collections.singletonList(user)));
+        }
+
+        /**
+         * Set the command of the image.
+         *
+         * @param cmd complete CMD instruction
+         * @return this stage
+         */
+        public Stage cmd(String cmd) {
+            return add(new Instruction(InstructionType.CMD, null, Collections.singletonList(cmd)));
+        }
+
+        private Stage add(Instruction instruction) {
+            this.instructions.add(instruction);
+            return this;
+        }
+    }
+
+    /**
+     * A Dockerfile instruction with its arguments.
+     */
+    @Getter
+    public static class Instruction {
+        private final InstructionType type;
+        private final String fromStage;
+        private final List<String> arguments;
+
+        Instruction(InstructionType type, String fromStage, List<String> arguments) {
+            this.type = type;
+            this.fromStage = fromStage;
+            this.arguments = Collections.unmodifiableList(arguments);
+        }
+    }
+
+    /**
+     * Supported Dockerfile instructions.
+     */
+    public enum InstructionType {
+        LABEL,
+        WORKDIR,
+        COPY,
+        RUN,
+        ENV,
+        EXPOSE,
+        USER,
+        CMD
+    }
+}
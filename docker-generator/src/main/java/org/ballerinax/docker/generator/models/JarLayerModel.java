@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.models;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A group of dependency jars copied into the image as a single layer.
+ */
+@Getter
+public class JarLayerModel {
+    private final LayerGroup group;
+    private final List<Path> jars;
+
+    public JarLayerModel(LayerGroup group, List<Path> jars) {
+        this.group = group;
+        this.jars = Collections.unmodifiableList(jars);
+    }
+
+    /**
+     * Jar groups ordered from the least to the most frequently changing.
+     */
+    public enum LayerGroup {
+        BALLERINA_RUNTIME,
+        THIRD_PARTY,
+        PROJECT,
+        APPLICATION
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.models;
+
+/**
+ * JVM tuning profiles applied to the container through the JAVA_TOOL_OPTIONS environment variable.
+ *
+ * The heap is sized relative to the container memory limit. The JVM sizes the GC and thread pools from the CPU quota
+ * of the container, so the processor count is left to the JVM.
+ */
+public enum JvmProfile {
+    /**
+     * No JVM tuning options.
+     */
+    NONE(""),
+    /**
+     * Sizes the heap relative to the container memory limit and leaves the GC choice to the JVM.
+     */
+    DEFAULT("-XX:InitialRAMPercentage=50.0 -XX:MaxRAMPercentage=75.0"),
+    /**
+     * G1 with a large heap for batch and high request rate workloads.
+     */
+    THROUGHPUT("-XX:InitialRAMPercentage=50.0 -XX:MaxRAMPercentage=75.0 -XX:+UseG1GC -Xss1m"),
+    /**
+     * G1 with a short pause time goal for services with tight tail latency targets. G1 is available on every base
+     * image and architecture, unlike ZGC on JDK 11.
+     */
+    LOW_LATENCY("-XX:InitialRAMPercentage=50.0 -XX:MaxRAMPercentage=70.0 -XX:+UseG1GC -XX:MaxGCPauseMillis=50 " +
+            "-Xss512k"),
+    /**
+     * Serial GC and C1 only compilation for small memory limits.
+     */
+    SMALL_FOOTPRINT("-XX:InitialRAMPercentage=25.0 -XX:MaxRAMPercentage=60.0 -XX:+UseSerialGC -Xss256k " +
+            "-XX:TieredStopAtLevel=1");
+
+    private final String javaOptions;
+
+    JvmProfile(String javaOptions) {
+        this.javaOptions = javaOptions;
+    }
+
+    public String getJavaOptions() {
+        return javaOptions;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.oci;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * A compressed layer tarball along with its digests.
+ */
+@Getter
+public class LayerBlob {
+    private final Path path;
+    private final String digest;
+    private final String diffId;
+    private final long size;
+
+    /**
+     * Create a layer blob.
+     *
+     * @param path   path of the compressed layer tarball
+     * @param digest hex encoded SHA-256 digest of the compressed tarball
+     * @param diffId hex encoded SHA-256 digest of the uncompressed tarball
+     * @param size   size of the compressed tarball
+     */
+    public LayerBlob(Path path, String digest, String diffId, long size) {
+        this.path = path;
+        this.digest = digest;
+        this.diffId = diffId;
+        this.size = size;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.oci;
+
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.utils.TarArchiveWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.printDebug;
+
+/**
+ * Local content addressed store of dependency jar layer tarballs.
+ *
+ * Entries are keyed by the SHA-256 digests of the jars in the layer, so a layer is reused for as long as none of its
+ * jars change. The least recently used entries are evicted once the store grows over its size limit.
+ */
+public class LayerCache {
+
+    // bump when the layer tarball format changes so that stale layers are not reused
+    private static final String KEY_VERSION = "v3";
+    private static final String LAYER_EXTENSION = ".tar.gz";
+    private static final String METADATA_EXTENSION = ".properties";
+
+    private final Path cacheDir;
+    private final long maxSize;
+
+    public LayerCache(Path cacheDir, long maxSize) throws IOException {
+        this.cacheDir = cacheDir;
+        this.maxSize = maxSize;
+        Files.createDirectories(cacheDir);
+    }
+
+    public Path getCacheDir() {
+        return this.cacheDir;
+    }
+
+    /**
+     * Compute the cache key of a layer from the names, the tar entry modes and the content of its jars.
+     *
+     * @param jars         jars in the layer
+     * @param workDirOwner owner written to the working directory entry of the layer, empty if it is owned by root
+     * @return hex encoded cache key
+     * @throws IOException        if a jar cannot be read
+     * @throws DockerGenException if SHA-256 is not available
+     */
+    public static String computeKey(List<Path> jars, String workDirOwner) throws IOException, DockerGenException {
+        MessageDigest keyDigest = newDigest();
+        keyDigest.update((KEY_VERSION + "\0" + workDirOwner).getBytes(StandardCharsets.UTF_8));
+        for (Path jar : jars) {
+            MessageDigest jarDigest = newDigest();
+            try (InputStream in = new DigestInputStream(Files.newInputStream(jar), jarDigest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            keyDigest.update(("\n" + jar.getFileName() + "\0" + TarArchiveWriter.getFileMode(jar) + "\0")
+                    .getBytes(StandardCharsets.UTF_8));
+            keyDigest.update(jarDigest.digest());
+        }
+        return HexFormat.of().formatHex(keyDigest.digest());
+    }
+
+    /**
+     * Get a cached layer and mark it as recently used.
+     *
+     * @param key cache key
+     * @return cached layer or null if the layer is not cached
+     * @throws IOException if the cache entry cannot be read
+     */
+    public LayerBlob get(String key) throws IOException {
+        Path layer = this.cacheDir.resolve(key + LAYER_EXTENSION);
+        Path metadata = this.cacheDir.resolve(key + METADATA_EXTENSION);
+        if (!Files.exists(layer) || !Files.exists(metadata)) {
+            return null;
+        }
+        try {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(metadata)) {
+                properties.load(in);
+            }
+            Files.setLastModifiedTime(layer, FileTime.fromMillis(System.currentTimeMillis()));
+            return new LayerBlob(layer, properties.getProperty("digest"), properties.getProperty("diffId"),
+                    Files.size(layer));
+        } catch (NoSuchFileException e) {
+            // evicted by a concurrent build
+            return null;
+        }
+    }
+
+    /**
+     * Move a freshly written layer into the cache.
+     *
+     * @param key  cache key
+     * @param blob layer written to a temporary file inside the cache directory
+     * @return cached layer
+     * @throws IOException if the layer cannot be stored
+     */
+    public LayerBlob put(String key, LayerBlob blob) throws IOException {
+        Path layer = this.cacheDir.resolve(key + LAYER_EXTENSION);
+        Path metadata = this.cacheDir.resolve(key + METADATA_EXTENSION);
+        Properties properties = new Properties();
+        properties.setProperty("digest", blob.getDigest());
+        properties.setProperty("diffId", blob.getDiffId());
+        Path tempMetadata = Files.createTempFile(this.cacheDir, key, ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempMetadata)) {
+            properties.store(out, null);
+        }
+        move(blob.getPath(), layer);
+        move(tempMetadata, metadata);
+        return new LayerBlob(layer, blob.getDigest(), blob.getDiffId(), blob.getSize());
+    }
+
+    /**
+     * Evict the least recently used layers until the cache fits into its size limit.
+     *
+     * @param retainedKeys keys of the layers used by the current build, which are never evicted
+     * @throws IOException if the cache directory cannot be read
+     */
+    public void evict(Collection<String> retainedKeys) throws IOException {
+        List<Path> layers;
+        try (Stream<Path> stream = Files.list(this.cacheDir)) {
+            layers = stream.filter(path -> path.getFileName().toString().endsWith(LAYER_EXTENSION))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        long totalSize = 0;
+        List<CacheEntry> entries = new ArrayList<>();
+        for (Path layer : layers) {
+            try {
+                CacheEntry entry = new CacheEntry(layer, Files.size(layer),
+                        Files.getLastModifiedTime(layer).toMillis());
+                totalSize += entry.size;
+                entries.add(entry);
+            } catch (NoSuchFileException e) {
+                // evicted by a concurrent build
+            }
+        }
+        entries.sort(Comparator.comparingLong(entry -> entry.lastUsed));
+        for (CacheEntry entry : entries) {
+            if (totalSize <= this.maxSize) {
+                break;
+            }
+            String fileName = entry.layer.getFileName().toString();
+            String key = fileName.substring(0, fileName.length() - LAYER_EXTENSION.length());
+            if (retainedKeys.contains(key)) {
+                continue;
+            }
+            Files.deleteIfExists(this.cacheDir.resolve(key + METADATA_EXTENSION));
+            Files.deleteIfExists(entry.layer);
+            totalSize -= entry.size;
+            printDebug("evicted layer `" + key + "` from layer cache.");
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest newDigest() throws DockerGenException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new DockerGenException("SHA-256 algorithm is not available");
+        }
+    }
+
+    /**
+     * Size and last use time of a cached layer.
+     */
+    private static class CacheEntry {
+        private final Path layer;
+        private final long size;
+        private final long lastUsed;
+
+        CacheEntry(Path layer, long size, long lastUsed) {
+            this.layer = layer;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.oci;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.CopyFileModel;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.ballerinax.docker.generator.models.JarLayerModel;
+import org.ballerinax.docker.generator.utils.DockerImageName;
+import org.ballerinax.docker.generator.utils.JarLayerPlanner;
+import org.ballerinax.docker.generator.utils.TarArchiveWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import static org.ballerinax.docker.generator.DockerGenConstants.BALLERINA_UID;
+import static org.ballerinax.docker.generator.DockerGenConstants.CLASS_PATH_JAR;
+import static org.ballerinax.docker.generator.DockerGenConstants.OPENJDK_11_JRE_SLIM_BASE;
+import static org.ballerinax.docker.generator.DockerGenConstants.TROUPE_GID;
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.isBlank;
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.printDebug;
+
+/**
+ * Writes a docker image as an OCI image layout without a docker daemon.
+ *
+ * The base image is read from a local OCI image layout (for example one created with
+ * {@code skopeo copy docker://ballerina/jre11:v1 oci:<dir>}) and its layers are reused as is. Since no RUN
+ * instruction can be executed, the runtime user of the default base image is not added to it. The image runs as the
+ * numeric ids the Dockerfile creates the user with instead, and the working directory is owned by them.
+ */
+public class OciImageWriter {
+
+    private static final String SHA256 = "sha256:";
+    private static final String INDEX_MEDIA_TYPE = "application/vnd.oci.image.index.v1+json";
+    private static final String MANIFEST_MEDIA_TYPE = "application/vnd.oci.image.manifest.v1+json";
+    private static final String CONFIG_MEDIA_TYPE = "application/vnd.oci.image.config.v1+json";
+    private static final String LAYER_MEDIA_TYPE = "application/vnd.oci.image.layer.v1.tar+gzip";
+    private static final String DOCKER_MANIFEST_LIST_MEDIA_TYPE =
+            "application/vnd.docker.distribution.manifest.list.v2+json";
+    private static final String DOCKER_LAYER_MEDIA_TYPE = "application/vnd.docker.image.rootfs.diff.tar.gzip";
+    private static final String REF_NAME_ANNOTATION = "org.opencontainers.image.ref.name";
+    private static final String CONTAINERD_NAME_ANNOTATION = "io.containerd.image.name";
+    private static final String WORK_DIR = "/home/ballerina";
+    private static final String PLATFORM_OS = "linux";
+    private static final String PLATFORM_ARCHITECTURE = "amd64";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final DockerModel dockerModel;
+    private final String cmdInstruction;
+    private final byte[] classPathJar;
+
+    public OciImageWriter(DockerModel dockerModel, String cmdInstruction) {
+        this(dockerModel, cmdInstruction, null);
+    }
+
+    public OciImageWriter(DockerModel dockerModel, String cmdInstruction, byte[] classPathJar) {
+        this.dockerModel = dockerModel;
+        this.cmdInstruction = cmdInstruction;
+        this.classPathJar = classPathJar;
+    }
+
+    /**
+     * Write the image to the given OCI image layout directory.
+     *
+     * @param jarFilePath executable jar path
+     * @param layoutDir   OCI image layout directory
+     * @throws DockerGenException if the image cannot be written
+     */
+    public void write(Path jarFilePath, Path layoutDir) throws DockerGenException {
+        if (isBlank(this.dockerModel.getBaseImageLayout())) {
+            throw new DockerGenException("base image OCI layout is required to build docker image '" +
+                    this.dockerModel.getName() + "' without a docker daemon");
+        }
+        DockerImageName imageName = DockerImageName.parseName(this.dockerModel.getName());
+        printDebug("writing docker image `" + this.dockerModel.getName() + "` to OCI layout `" + layoutDir + "`.");
+        try {
+            Path blobsDir = layoutDir.resolve("blobs").resolve("sha256");
+            Files.createDirectories(blobsDir);
+            Path baseLayoutDir = Paths.get(this.dockerModel.getBaseImageLayout()).toAbsolutePath();
+            JsonNode baseManifest = readBaseManifest(baseLayoutDir);
+            ObjectNode config = (ObjectNode) readBlob(baseLayoutDir, baseManifest.path("config").path("digest")
+                    .asText());
+
+            ArrayNode layers = MAPPER.createArrayNode();
+            for (JsonNode baseLayer : baseManifest.path("layers")) {
+                ObjectNode layer = baseLayer.deepCopy();
+                if (DOCKER_LAYER_MEDIA_TYPE.equals(layer.path("mediaType").asText())) {
+                    layer.put("mediaType", LAYER_MEDIA_TYPE);
+                }
+                String digest = layer.path("digest").asText();
+                linkFile(blobPath(baseLayoutDir, digest), blobsDir.resolve(digest.substring(SHA256.length())));
+                layers.add(layer);
+            }
+            ObjectNode rootfs = MAPPER.createObjectNode();
+            rootfs.put("type", "layers");
+            ArrayNode diffIds = rootfs.putArray("diff_ids");
+            config.path("rootfs").path("diff_ids").forEach(diffIds::add);
+            ArrayNode history = config.get("history") instanceof ArrayNode ? (ArrayNode) config.get("history") :
+                    null;
+            ImageLayers imageLayers = new ImageLayers(layers, diffIds, history);
+
+            LayerCache layerCache = isBlank(this.dockerModel.getLayerCacheDir()) ? null :
+                    new LayerCache(Paths.get(this.dockerModel.getLayerCacheDir()),
+                            this.dockerModel.getLayerCacheMaxSize());
+            Set<String> usedCacheKeys = new HashSet<>();
+            for (JarLayerModel jarLayer : new JarLayerPlanner(this.dockerModel.getMaxLayersPerGroup())
+                    .plan(this.dockerModel.getDependencyJars())) {
+                LayerContent content = tar -> {
+                    for (Path jar : jarLayer.getJars()) {
+                        tar.addFile(WORK_DIR + "/jars/" + jar.getFileName(), jar.toAbsolutePath());
+                    }
+                };
+                String createdBy = "COPY " + jarLayer.getGroup() + " jars";
+                if (null == layerCache) {
+                    imageLayers.add(moveToBlobs(writeLayerBlob(blobsDir, content), blobsDir), createdBy);
+                    continue;
+                }
+                String key = LayerCache.computeKey(jarLayer.getJars(), getWorkDirOwner());
+                usedCacheKeys.add(key);
+                LayerBlob layerBlob = layerCache.get(key);
+                if (null == layerBlob) {
+                    printDebug("layer cache miss for " + jarLayer.getJars().size() + " jar(s), key `" + key + "`.");
+                    layerBlob = layerCache.put(key, writeLayerBlob(layerCache.getCacheDir(), content));
+                } else {
+                    printDebug("layer cache hit for " + jarLayer.getJars().size() + " jar(s), key `" + key + "`.");
+                }
+                linkFile(layerBlob.getPath(), blobsDir.resolve(layerBlob.getDigest()));
+                imageLayers.add(layerBlob, createdBy);
+            }
+            if (null != layerCache) {
+                layerCache.evict(usedCacheKeys);
+            }
+            imageLayers.add(moveToBlobs(writeLayerBlob(blobsDir, tar -> tar.addFile(WORK_DIR + "/" +
+                    this.dockerModel.getJarFileName(), jarFilePath)), blobsDir),
+                    "COPY " + this.dockerModel.getJarFileName());
+            if (null != this.classPathJar) {
+                imageLayers.add(moveToBlobs(writeLayerBlob(blobsDir, tar -> tar.addFile(WORK_DIR + "/" +
+                        CLASS_PATH_JAR, this.classPathJar)), blobsDir), "COPY " + CLASS_PATH_JAR);
+            }
+            List<CopyFileModel> copyFiles = new ArrayList<>(this.dockerModel.getCopyFiles());
+            copyFiles.sort(Comparator.comparing(CopyFileModel::getSource));
+            for (CopyFileModel copyFile : copyFiles) {
+                Path source = Paths.get(copyFile.getSource()).toAbsolutePath();
+                if (!Files.exists(source)) {
+                    throw new DockerGenException("error while copying file/folder '" + source +
+                            "' as it does not exist");
+                }
+                LayerBlob layerBlob = writeLayerBlob(blobsDir, tar -> {
+                    if (Files.isDirectory(source)) {
+                        tar.addDirectoryTree(resolveTarget(copyFile.getTarget(), null), source);
+                    } else {
+                        tar.addFile(resolveTarget(copyFile.getTarget(), source.getFileName().toString()), source);
+                    }
+                });
+                imageLayers.add(moveToBlobs(layerBlob, blobsDir), "COPY " + source.getFileName());
+            }
+
+            config.remove("created");
+            config.set("rootfs", rootfs);
+            updateRuntimeConfig(config);
+            ObjectNode configDescriptor = writeBlob(blobsDir, MAPPER.writeValueAsBytes(config), CONFIG_MEDIA_TYPE);
+
+            ObjectNode manifest = MAPPER.createObjectNode();
+            manifest.put("schemaVersion", 2);
+            manifest.put("mediaType", MANIFEST_MEDIA_TYPE);
+            manifest.set("config", configDescriptor);
+            manifest.set("layers", layers);
+            ObjectNode manifestDescriptor = writeBlob(blobsDir, MAPPER.writeValueAsBytes(manifest),
+                    MANIFEST_MEDIA_TYPE);
+            ObjectNode annotations = manifestDescriptor.putObject("annotations");
+            annotations.put(REF_NAME_ANNOTATION, imageName.getTag());
+            annotations.put(CONTAINERD_NAME_ANNOTATION, imageName.getFullName());
+
+            ObjectNode index = MAPPER.createObjectNode();
+            index.put("schemaVersion", 2);
+            index.put("mediaType", INDEX_MEDIA_TYPE);
+            index.putArray("manifests").add(manifestDescriptor);
+            Files.write(layoutDir.resolve("index.json"), MAPPER.writeValueAsBytes(index));
+            ObjectNode ociLayout = MAPPER.createObjectNode();
+            ociLayout.put("imageLayoutVersion", "1.0.0");
+            Files.write(layoutDir.resolve("oci-layout"), MAPPER.writeValueAsBytes(ociLayout));
+            printDebug("docker image `" + imageName.getFullName() + "` written with manifest " +
+                    manifestDescriptor.path("digest").asText());
+        } catch (IOException | RuntimeException e) {
+            throw new DockerGenException("unable to write docker image '" + this.dockerModel.getName() +
+                    "' to OCI layout " + layoutDir + ": " + e.getMessage());
+        }
+    }
+
+    private JsonNode readBaseManifest(Path baseLayoutDir) throws IOException, DockerGenException {
+        JsonNode index = MAPPER.readTree(baseLayoutDir.resolve("index.json").toFile());
+        String baseTag = DockerImageName.parseName(this.dockerModel.getBaseImage()).getTag();
+        JsonNode manifests = index.path("manifests");
+        if (manifests.size() == 0) {
+            throw new DockerGenException("no image found in base image OCI layout " + baseLayoutDir);
+        }
+        JsonNode descriptor = null;
+        for (JsonNode manifest : manifests) {
+            if (baseTag.equals(manifest.path("annotations").path(REF_NAME_ANNOTATION).asText())) {
+                descriptor = manifest;
+                break;
+            }
+        }
+        if (null == descriptor) {
+            if (manifests.size() > 1) {
+                throw new DockerGenException("no image tagged '" + baseTag + "' found in base image OCI layout " +
+                        baseLayoutDir);
+            }
+            printDebug("no image tagged `" + baseTag + "` found in base image OCI layout `" + baseLayoutDir +
+                    "`, using its only image.");
+            descriptor = manifests.get(0);
+        }
+        JsonNode manifest = readBlob(baseLayoutDir, descriptor.path("digest").asText());
+        String mediaType = manifest.path("mediaType").asText(descriptor.path("mediaType").asText());
+        if (INDEX_MEDIA_TYPE.equals(mediaType) || DOCKER_MANIFEST_LIST_MEDIA_TYPE.equals(mediaType)) {
+            // multi platform base image, use the linux/amd64 variant
+            JsonNode platformDescriptor = null;
+            for (JsonNode platformManifest : manifest.path("manifests")) {
+                JsonNode platform = platformManifest.path("platform");
+                if (PLATFORM_OS.equals(platform.path("os").asText()) &&
+                        PLATFORM_ARCHITECTURE.equals(platform.path("architecture").asText())) {
+                    platformDescriptor = platformManifest;
+                    break;
+                }
+            }
+            if (null == platformDescriptor) {
+                throw new DockerGenException("no " + PLATFORM_OS + "/" + PLATFORM_ARCHITECTURE + " image found in " +
+                        "base image OCI layout " + baseLayoutDir);
+            }
+            manifest = readBlob(baseLayoutDir, platformDescriptor.path("digest").asText());
+        }
+        return manifest;
+    }
+
+    private void updateRuntimeConfig(ObjectNode config) throws IOException {
+        JsonNode existing = config.get("config");
+        ObjectNode runtimeConfig = existing instanceof ObjectNode ? (ObjectNode) existing : config.putObject("config");
+
+        Map<String, String> imageEnv = new LinkedHashMap<>();
+        if (isBallerinaUser()) {
+            // the user has no passwd entry to take the home directory from
+            imageEnv.put("HOME", WORK_DIR);
+        }
+        imageEnv.putAll(this.dockerModel.getImageEnv());
+        ArrayNode env = MAPPER.createArrayNode();
+        for (JsonNode variable : runtimeConfig.path("Env")) {
+            String key = variable.asText().split("=", 2)[0];
+            if (!imageEnv.containsKey(key)) {
+                env.add(variable.asText());
+            }
+        }
+        for (Map.Entry<String, String> variable : imageEnv.entrySet()) {
+            env.add(variable.getKey() + "=" + variable.getValue());
+        }
+        runtimeConfig.set("Env", env);
+        runtimeConfig.put("WorkingDir", WORK_DIR);
+        if (isBallerinaUser()) {
+            runtimeConfig.put("User", getWorkDirOwner());
+        }
+        runtimeConfig.set("Cmd", parseCmd());
+        if (this.dockerModel.isService() && null != this.dockerModel.getPorts() &&
+                this.dockerModel.getPorts().size() > 0) {
+            ObjectNode exposedPorts = runtimeConfig.putObject("ExposedPorts");
+            this.dockerModel.getPorts().forEach(port -> exposedPorts.putObject(port + "/tcp"));
+        }
+        JsonNode existingLabels = runtimeConfig.get("Labels");
+        ObjectNode labels = existingLabels instanceof ObjectNode ? (ObjectNode) existingLabels :
+                runtimeConfig.putObject("Labels");
+        labels.put("maintainer", "dev@ballerina.io");
+    }
+
+    /**
+     * Check whether the image runs as the ballerina user, which the Dockerfile adds to the default base image.
+     *
+     * @return true if the image runs as the ballerina user
+     */
+    private boolean isBallerinaUser() {
+        return OPENJDK_11_JRE_SLIM_BASE.equals(this.dockerModel.getBaseImage());
+    }
+
+    private String getWorkDirOwner() {
+        return isBallerinaUser() ? BALLERINA_UID + ":" + TROUPE_GID : "";
+    }
+
+    private ArrayNode parseCmd() throws IOException {
+        String command = this.cmdInstruction.trim();
+        if (command.toUpperCase(Locale.getDefault()).startsWith("CMD")) {
+            command = command.substring(3).trim();
+        }
+        if (!isBlank(this.dockerModel.getCommandArg())) {
+            command = command + this.dockerModel.getCommandArg();
+        }
+        if (command.startsWith("[")) {
+            return (ArrayNode) MAPPER.readTree(command);
+        }
+        ArrayNode cmd = MAPPER.createArrayNode();
+        cmd.add("/bin/sh");
+        cmd.add("-c");
+        cmd.add(command);
+        return cmd;
+    }
+
+    private String resolveTarget(String target, String sourceFileName) {
+        String resolved = target.startsWith("/") ? target : WORK_DIR + "/" + target;
+        if (null != sourceFileName && resolved.endsWith("/")) {
+            resolved = resolved + sourceFileName;
+        }
+        return resolved;
+    }
+
+    /**
+     * Write a compressed layer tarball to a temporary file in the given directory.
+     *
+     * @param dir     directory to write the layer to
+     * @param content content of the layer
+     * @return written layer
+     */
+    private LayerBlob writeLayerBlob(Path dir, LayerContent content) throws IOException, DockerGenException {
+        MessageDigest blobDigest = newDigest();
+        MessageDigest diffIdDigest = newDigest();
+        Path tempFile = Files.createTempFile(dir, "layer-", ".tmp");
+        try {
+            OutputStream blobOut = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)),
+                    blobDigest);
+            try (TarArchiveWriter tar = new TarArchiveWriter(new DigestOutputStream(new GZIPOutputStream(blobOut),
+                    diffIdDigest))) {
+                if (isBallerinaUser()) {
+                    tar.setDirectoryOwner(WORK_DIR, BALLERINA_UID, TROUPE_GID);
+                }
+                content.write(tar);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        return new LayerBlob(tempFile, HexFormat.of().formatHex(blobDigest.digest()),
+                HexFormat.of().formatHex(diffIdDigest.digest()), Files.size(tempFile));
+    }
+
+    private LayerBlob moveToBlobs(LayerBlob layerBlob, Path blobsDir) throws IOException {
+        Path blob = blobsDir.resolve(layerBlob.getDigest());
+        Files.move(layerBlob.getPath(), blob, StandardCopyOption.REPLACE_EXISTING);
+        return new LayerBlob(blob, layerBlob.getDigest(), layerBlob.getDiffId(), layerBlob.getSize());
+    }
+
+    private ObjectNode writeBlob(Path blobsDir, byte[] content, String mediaType) throws IOException,
+            DockerGenException {
+        String digest = HexFormat.of().formatHex(newDigest().digest(content));
+        Path blob = blobsDir.resolve(digest);
+        if (!Files.exists(blob)) {
+            Files.write(blob, content);
+        }
+        ObjectNode descriptor = MAPPER.createObjectNode();
+        descriptor.put("mediaType", mediaType);
+        descriptor.put("digest", SHA256 + digest);
+        descriptor.put("size", content.length);
+        return descriptor;
+    }
+
+    private void linkFile(Path source, Path target) throws IOException {
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createLink(target, source);
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(source, target);
+        }
+    }
+
+    private JsonNode readBlob(Path layoutDir, String digest) throws IOException {
+        return MAPPER.readTree(blobPath(layoutDir, digest).toFile());
+    }
+
+    private Path blobPath(Path layoutDir, String digest) throws IOException {
+        if (!digest.startsWith(SHA256)) {
+            throw new IOException("unsupported digest '" + digest + "'");
+        }
+        return layoutDir.resolve("blobs").resolve("sha256").resolve(digest.substring(SHA256.length()));
+    }
+
+    private static MessageDigest newDigest() throws DockerGenException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new DockerGenException("SHA-256 algorithm is not available");
+        }
+    }
+
+    /**
+     * Writes the content of a layer.
+     */
+    private interface LayerContent {
+        void write(TarArchiveWriter tar) throws IOException;
+    }
+
+    /**
+     * Layers of the image along with their diff ids and history.
+     */
+    private static class ImageLayers {
+        private final ArrayNode layers;
+        private final ArrayNode diffIds;
+        private final ArrayNode history;
+
+        ImageLayers(ArrayNode layers, ArrayNode diffIds, ArrayNode history) {
+            this.layers = layers;
+            this.diffIds = diffIds;
+            this.history = history;
+        }
+
+        void add(LayerBlob layerBlob, String createdBy) {
+            ObjectNode layer = this.layers.addObject();
+            layer.put("mediaType", LAYER_MEDIA_TYPE);
+            layer.put("digest", SHA256 + layerBlob.getDigest());
+            layer.put("size", layerBlob.getSize());
+            this.diffIds.add(SHA256 + layerBlob.getDiffId());
+            if (null != this.history) {
+                // history entries must match the layers, so only extend it when the base image provides one
+                this.history.addObject().put("created_by", createdBy);
+            }
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.ballerinax.docker.generator.DockerGenConstants;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.printDebug;
+
+/**
+ * Manifest of the files generated in the docker output directory.
+ *
+ * The manifest records the size, modification time and digest of each generated file and the modification time of the
+ * generated file itself, so that repeated builds only rewrite the files whose inputs or outputs changed and remove
+ * the files which are no longer generated. Files can be written and copied concurrently.
+ */
+public class ArtifactManifest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int VERSION = 2;
+
+    private final Path outputDir;
+    private final Map<String, Entry> previousEntries;
+    private final Map<String, Entry> entries = new ConcurrentSkipListMap<>();
+    private final String previousImage;
+    private String builtImage;
+    private volatile boolean changed;
+
+    private ArtifactManifest(Path outputDir, Map<String, Entry> previousEntries, String previousImage) {
+        this.outputDir = outputDir;
+        this.previousEntries = previousEntries;
+        this.previousImage = previousImage;
+    }
+
+    /**
+     * Load the manifest of the given output directory. An empty manifest is returned if the directory has no valid
+     * manifest.
+     *
+     * @param outputDir docker output directory
+     * @return artifact manifest
+     */
+    public static ArtifactManifest load(Path outputDir) {
+        Path manifestPath = outputDir.resolve(DockerGenConstants.ARTIFACT_MANIFEST);
+        Map<String, Entry> previousEntries = new TreeMap<>();
+        String previousImage = null;
+        if (Files.exists(manifestPath)) {
+            try {
+                JsonNode manifest = MAPPER.readTree(manifestPath.toFile());
+                if (manifest.path("version").asInt() == VERSION) {
+                    previousImage = manifest.path("image").isTextual() ? manifest.path("image").asText() : null;
+                    Iterator<Map.Entry<String, JsonNode>> fields = manifest.path("entries").fields();
+                    while (fields.hasNext()) {
+                        Map.Entry<String, JsonNode> field = fields.next();
+                        JsonNode entry = field.getValue();
+                        previousEntries.put(field.getKey(), new Entry(entry.path("source").asText(),
+                                entry.path("size").asLong(), entry.path("modified").asLong(),
+                                entry.path("digest").asText(), entry.path("targetModified").asLong()));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                printDebug("ignoring invalid artifact manifest `" + manifestPath + "`: " + e.getMessage());
+                previousEntries.clear();
+                previousImage = null;
+            }
+        }
+        return new ArtifactManifest(outputDir, previousEntries, previousImage);
+    }
+
+    /**
+     * Write generated content to a file unless the file already has the same content.
+     *
+     * @param content        file content
+     * @param targetFilePath target file path
+     * @throws IOException if the file cannot be written
+     */
+    public void writeFile(String content, Path targetFilePath) throws IOException {
+        writeFile(content.getBytes(StandardCharsets.UTF_8), targetFilePath);
+    }
+
+    /**
+     * Write generated binary content to a file unless the file already has the same content.
+     *
+     * @param content        file content
+     * @param targetFilePath target file path
+     * @throws IOException if the file cannot be written
+     */
+    public void writeFile(byte[] content, Path targetFilePath) throws IOException {
+        String digest = digest(content);
+        String key = key(targetFilePath);
+        Entry previous = this.previousEntries.get(key);
+        if (null == previous || !previous.digest.equals(digest) || !matches(previous, targetFilePath)) {
+            Files.createDirectories(targetFilePath.toAbsolutePath().getParent());
+            Files.write(targetFilePath, content);
+            this.changed = true;
+            printDebug("updated `" + key + "`.");
+        }
+        long modified = Files.getLastModifiedTime(targetFilePath).toMillis();
+        this.entries.put(key, new Entry("", Files.size(targetFilePath), modified, digest, modified));
+    }
+
+    /**
+     * Copy a file or directory unless the target is already up to date.
+     *
+     * @param source      source file/directory path
+     * @param destination destination file/directory path
+     * @throws DockerGenException if the files cannot be copied
+     */
+    public void copy(Path source, Path destination) throws DockerGenException {
+        copy(source, destination, false);
+    }
+
+    /**
+     * Copy a file or directory unless the target is already up to date.
+     *
+     * @param source         source file/directory path
+     * @param destination    destination file/directory path
+     * @param readOnlySource whether the source is never written, so that it may be hard linked
+     * @throws DockerGenException if the files cannot be copied
+     */
+    public void copy(Path source, Path destination, boolean readOnlySource) throws DockerGenException {
+        if (!Files.exists(source)) {
+            throw new DockerGenException("error while copying file/folder '" + source + "' as it does not exist");
+        }
+        try {
+            if (Files.isDirectory(source)) {
+                List<Path> files;
+                try (Stream<Path> stream = Files.walk(source)) {
+                    files = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+                }
+                for (Path file : files) {
+                    copyFile(file, destination.resolve(source.relativize(file).toString()), readOnlySource);
+                }
+            } else {
+                Path target = Files.isDirectory(destination) ? destination.resolve(source.getFileName()) :
+                        destination;
+                copyFile(source, target, readOnlySource);
+            }
+        } catch (IOException e) {
+            throw new DockerGenException("error while copying file/folder '" + source + "' to '" + destination + "'");
+        }
+    }
+
+    /**
+     * Delete the files which were generated by the previous build but not by this one, and the directories which
+     * become empty.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    public void removeStaleEntries() throws IOException {
+        Set<String> staleKeys = new HashSet<>(this.previousEntries.keySet());
+        staleKeys.removeAll(this.entries.keySet());
+        for (String staleKey : staleKeys) {
+            Path staleFile = this.outputDir.resolve(staleKey);
+            Files.deleteIfExists(staleFile);
+            this.changed = true;
+            printDebug("removed stale `" + staleKey + "`.");
+            removeEmptyParents(staleFile);
+        }
+    }
+
+    private void removeEmptyParents(Path file) throws IOException {
+        Path dir = file.getParent();
+        while (null != dir && !dir.equals(this.outputDir) && dir.startsWith(this.outputDir) &&
+                Files.isDirectory(dir)) {
+            try (Stream<Path> children = Files.list(dir)) {
+                if (children.findAny().isPresent()) {
+                    return;
+                }
+            }
+            Files.delete(dir);
+            dir = dir.getParent();
+        }
+    }
+
+    /**
+     * Check whether any generated file changed compared to the previous build.
+     *
+     * @return true if a file was written, copied or removed
+     */
+    public boolean isChanged() {
+        return this.changed || this.previousEntries.size() != this.entries.size();
+    }
+
+    /**
+     * Check whether the given image was built from the current files by a previous build.
+     *
+     * @param imageName docker image name
+     * @return true if the image is up to date
+     */
+    public boolean isImageUpToDate(String imageName) {
+        return !isChanged() && imageName.equals(this.previousImage);
+    }
+
+    public void setBuiltImage(String imageName) {
+        this.builtImage = imageName;
+    }
+
+    /**
+     * Save the manifest to the output directory.
+     *
+     * @throws IOException if the manifest cannot be written
+     */
+    public void save() throws IOException {
+        ObjectNode manifest = MAPPER.createObjectNode();
+        manifest.put("version", VERSION);
+        String image = null != this.builtImage ? this.builtImage : (isChanged() ? null : this.previousImage);
+        if (null != image) {
+            manifest.put("image", image);
+        }
+        ObjectNode entriesNode = manifest.putObject("entries");
+        this.entries.forEach((key, entry) -> {
+            ObjectNode entryNode = entriesNode.putObject(key);
+            entryNode.put("source", entry.source);
+            entryNode.put("size", entry.size);
+            entryNode.put("modified", entry.modified);
+            entryNode.put("digest", entry.digest);
+            entryNode.put("targetModified", entry.targetModified);
+        });
+        Files.write(this.outputDir.resolve(DockerGenConstants.ARTIFACT_MANIFEST), MAPPER.writeValueAsBytes(manifest));
+    }
+
+    private void copyFile(Path source, Path target, boolean readOnlySource) throws IOException, DockerGenException {
+        String key = key(target);
+        String sourcePath = source.toAbsolutePath().toString();
+        long size = Files.size(source);
+        long modified = Files.getLastModifiedTime(source).toMillis();
+        Entry previous = this.previousEntries.get(key);
+        String digest = "";
+        boolean upToDate = false;
+        if (null != previous && previous.source.equals(sourcePath) && previous.size == size &&
+                matches(previous, target)) {
+            if (previous.modified == modified) {
+                upToDate = true;
+                digest = previous.digest;
+            } else {
+                // the source was touched, compare the content before copying it again
+                digest = digest(source);
+                upToDate = digest.equals(previous.digest);
+            }
+        }
+        if (!upToDate) {
+            // staged files may be hard links to the source, so the digest is recorded before the source changes
+            digest = digest.isEmpty() ? digest(source) : digest;
+            DockerGenUtils.copyFileOrDirectory(source, target, readOnlySource);
+            this.changed = true;
+        }
+        this.entries.put(key, new Entry(sourcePath, size, modified, digest,
+                Files.getLastModifiedTime(target).toMillis()));
+    }
+
+    /**
+     * Check whether the target still holds the content recorded by the previous build. The content is only digested
+     * when the target was modified since, e.g. by editing the output directory or touching a hard linked source.
+     */
+    private boolean matches(Entry previous, Path target) throws IOException {
+        if (!Files.isRegularFile(target) || Files.size(target) != previous.size) {
+            return false;
+        }
+        return Files.getLastModifiedTime(target).toMillis() == previous.targetModified ||
+                digest(target).equals(previous.digest);
+    }
+
+    private String key(Path target) {
+        return this.outputDir.toAbsolutePath().normalize().relativize(target.toAbsolutePath().normalize())
+                .toString().replace('\\', '/');
+    }
+
+    private static String digest(byte[] content) throws IOException {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    private static String digest(Path file) throws IOException {
+        MessageDigest messageDigest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), messageDigest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(messageDigest.digest());
+    }
+
+    private static MessageDigest newDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 algorithm is not available", e);
+        }
+    }
+
+    /**
+     * A generated file in the output directory.
+     */
+    private static class Entry {
+        private final String source;
+        private final long size;
+        private final long modified;
+        private final String digest;
+        private final long targetModified;
+
+        Entry(String source, long size, long modified, String digest, long targetModified) {
+            this.source = source;
+            this.size = size;
+            this.modified = modified;
+            this.digest = digest;
+            this.targetModified = targetModified;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Docker build context streamed as a tar archive.
+ *
+ * Entries are read from their original locations while the archive is written, so the build context is never
+ * copied to a staging directory.
+ */
+public class BuildContext {
+
+    private static final int PIPE_BUFFER_SIZE = 1024 * 1024;
+
+    private final Map<String, Object> entries = new TreeMap<>();
+    private final AtomicReference<IOException> error = new AtomicReference<>();
+    private volatile long bytesWritten;
+    private volatile Duration streamTime = Duration.ZERO;
+
+    /**
+     * Add a file or directory to the build context.
+     *
+     * @param name   path inside the build context
+     * @param source file or directory to read the content from
+     */
+    public void addPath(String name, Path source) {
+        this.entries.put(name, source);
+    }
+
+    /**
+     * Add a file with the given content to the build context.
+     *
+     * @param name    path inside the build context
+     * @param content file content
+     */
+    public void addContent(String name, String content) {
+        addContent(name, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Add a file with the given binary content to the build context.
+     *
+     * @param name    path inside the build context
+     * @param content file content
+     */
+    public void addContent(String name, byte[] content) {
+        this.entries.put(name, content);
+    }
+
+    /**
+     * Write the build context as a tar archive.
+     *
+     * @param out stream to write the archive to, closed once the archive is completely written
+     * @throws IOException if an entry cannot be read or written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        TarArchiveWriter tarWriter = new TarArchiveWriter(out);
+        for (Map.Entry<String, Object> entry : this.entries.entrySet()) {
+            if (entry.getValue() instanceof byte[]) {
+                tarWriter.addFile(entry.getKey(), (byte[]) entry.getValue());
+            } else if (Files.isDirectory((Path) entry.getValue())) {
+                tarWriter.addDirectoryTree(entry.getKey(), (Path) entry.getValue());
+            } else {
+                tarWriter.addFile(entry.getKey(), (Path) entry.getValue());
+            }
+        }
+        // an incomplete archive is not terminated, so the daemon does not build from a partial context
+        tarWriter.close();
+        this.bytesWritten = tarWriter.getBytesWritten();
+    }
+
+    /**
+     * Open a stream of the build context archive. The archive is produced on a separate thread while the stream is
+     * consumed.
+     *
+     * @return tar archive stream
+     * @throws IOException if the stream cannot be opened
+     */
+    public InputStream openStream() throws IOException {
+        PipedInputStream in = new PipedInputStream(PIPE_BUFFER_SIZE);
+        PipedOutputStream out = new PipedOutputStream(in);
+        Thread producer = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                writeTo(out);
+                this.streamTime = Duration.ofNanos(System.nanoTime() - start);
+            } catch (IOException e) {
+                this.error.set(e);
+                try {
+                    out.close();
+                } catch (IOException closeError) {
+                    // the consumer already closed the stream
+                }
+            }
+        }, "docker-build-context");
+        producer.setDaemon(true);
+        producer.start();
+        return in;
+    }
+
+    /**
+     * Get the error which stopped producing the archive, if any.
+     *
+     * @return producer error or null
+     */
+    public IOException getError() {
+        return this.error.get();
+    }
+
+    /**
+     * Get the size of the archive, once it is completely written.
+     *
+     * @return archive size in bytes, 0 if the archive is not written yet
+     */
+    public long getBytesWritten() {
+        return this.bytesWritten;
+    }
+
+    /**
+     * Get the time taken to stream the archive, which is bound by how fast the docker daemon reads the build context.
+     *
+     * @return time from opening the stream until the archive was completely written
+     */
+    public Duration getStreamTime() {
+        return this.streamTime;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.DockerfileModel;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Size and composition of a docker build context.
+ *
+ * Each entry of the build context is measured before the image is built, and the entries are grouped by the image
+ * layer they are copied into.
+ */
+public class BuildContextReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final int LARGEST_ENTRY_COUNT = 3;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<Layer> layers = new ArrayList<>();
+    private long baseImageSize = -1;
+
+    /**
+     * Measure the build context of an image from the COPY instructions of its Dockerfile. Every file copied from the
+     * build context by any stage is part of the context, but only the files the runtime stage copies from the build
+     * context are counted as image layers. Files the runtime stage copies from a builder stage, such as a linked
+     * runtime or a native executable, are only known after the build and are left out.
+     *
+     * @param dockerfileSize  Dockerfile size in bytes
+     * @param dockerfileModel Dockerfile model
+     * @param sources         files and directories of the build context by their name in the context
+     * @param generatedFiles  sizes of the generated files of the build context by their name in the context
+     * @return build context report
+     * @throws DockerGenException if an entry of the build context cannot be measured
+     */
+    public static BuildContextReport create(long dockerfileSize, DockerfileModel dockerfileModel,
+                                            Map<String, Path> sources, Map<String, Long> generatedFiles)
+            throws DockerGenException {
+        BuildContextReport report = new BuildContextReport();
+        report.entries.add(new Entry("Dockerfile", null, dockerfileSize, 1));
+        Map<String, Entry> measured = new HashMap<>();
+        List<DockerfileModel.Stage> stages = dockerfileModel.getStages();
+        for (int i = 0; i < stages.size(); i++) {
+            boolean runtimeStage = i == stages.size() - 1;
+            for (DockerfileModel.Instruction instruction : stages.get(i).getInstructions()) {
+                if (instruction.getType() != DockerfileModel.InstructionType.COPY ||
+                        null != instruction.getFromStage()) {
+                    continue;
+                }
+                List<String> copySources = instruction.getArguments().subList(0,
+                        instruction.getArguments().size() - 1);
+                Layer layer = runtimeStage ? report.addLayer("copy-" + copySources.get(0) +
+                        (copySources.size() > 1 ? "+" + (copySources.size() - 1) : "")) : null;
+                for (String name : copySources) {
+                    Entry entry = measured.get(name);
+                    if (null == entry) {
+                        entry = report.measure(name, sources.get(name), generatedFiles.get(name));
+                        measured.put(name, entry);
+                    }
+                    if (null != layer) {
+                        layer.add(entry);
+                    }
+                }
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Set the size of the base image when it is known.
+     *
+     * @param baseImageSize base image size in bytes
+     */
+    public void setBaseImageSize(long baseImageSize) {
+        this.baseImageSize = baseImageSize;
+    }
+
+    /**
+     * Get the total size of the build context.
+     *
+     * @return size in bytes
+     */
+    public long getContextSize() {
+        return this.entries.stream().mapToLong(entry -> entry.size).sum();
+    }
+
+    /**
+     * Get the size the generated layers add on top of the base image.
+     *
+     * @return size in bytes
+     */
+    public long getAddedLayerSize() {
+        return this.layers.stream().mapToLong(Layer::getSize).sum();
+    }
+
+    /**
+     * Get the estimated uncompressed image size, or the added layer size if the base image size is not known.
+     *
+     * @return size in bytes
+     */
+    public long getImageSize() {
+        return Math.max(this.baseImageSize, 0) + getAddedLayerSize();
+    }
+
+    /**
+     * Fail if the build context or the image is larger than the given budgets. A budget of 0 or less is unlimited.
+     *
+     * @param imageName      docker image name
+     * @param maxContextSize build context budget in bytes
+     * @param maxImageSize   image size budget in bytes
+     * @throws DockerGenException if a budget is exceeded
+     */
+    public void checkBudgets(String imageName, long maxContextSize, long maxImageSize) throws DockerGenException {
+        if (maxContextSize > 0 && getContextSize() > maxContextSize) {
+            throw new DockerGenException("docker build context of '" + imageName + "' is " +
+                    formatSize(getContextSize()) + " which exceeds the budget of " + formatSize(maxContextSize) +
+                    ". largest entries: " + getLargestEntries());
+        }
+        if (maxImageSize > 0 && getImageSize() > maxImageSize) {
+            String imageSize = this.baseImageSize < 0 ? "at least " + formatSize(getImageSize()) :
+                    formatSize(getImageSize());
+            throw new DockerGenException("docker image '" + imageName + "' is " + imageSize +
+                    " which exceeds the budget of " + formatSize(maxImageSize) + ". largest entries: " +
+                    getLargestEntries());
+        }
+    }
+
+    /**
+     * Serialize the report as JSON.
+     *
+     * @return report content
+     * @throws IOException if the report cannot be serialized
+     */
+    public String toJson() throws IOException {
+        ObjectNode report = MAPPER.createObjectNode();
+        report.put("contextSize", getContextSize());
+        ObjectNode image = report.putObject("imageSize");
+        if (this.baseImageSize >= 0) {
+            image.put("base", this.baseImageSize);
+        }
+        image.put("added", getAddedLayerSize());
+        image.put("total", getImageSize());
+        ArrayNode layersNode = report.putArray("layers");
+        for (Layer layer : this.layers) {
+            ObjectNode layerNode = layersNode.addObject();
+            layerNode.put("name", layer.name);
+            layerNode.put("size", layer.getSize());
+            ArrayNode layerEntries = layerNode.putArray("entries");
+            layer.entries.forEach(entry -> layerEntries.add(entry.name));
+        }
+        ArrayNode entriesNode = report.putArray("entries");
+        for (Entry entry : sortedEntries()) {
+            ObjectNode entryNode = entriesNode.addObject();
+            entryNode.put("name", entry.name);
+            if (null != entry.source) {
+                entryNode.put("source", entry.source.toString());
+            }
+            entryNode.put("size", entry.size);
+            entryNode.put("files", entry.files);
+        }
+        return MAPPER.writeValueAsString(report) + "\n";
+    }
+
+    private Layer addLayer(String name) {
+        Layer layer = new Layer(name);
+        this.layers.add(layer);
+        return layer;
+    }
+
+    private Entry measure(String name, Path source, Long generatedSize) throws DockerGenException {
+        if (null != generatedSize) {
+            Entry entry = new Entry(name, null, generatedSize, 1);
+            this.entries.add(entry);
+            return entry;
+        }
+        if (null == source) {
+            throw new DockerGenException("error while copying file/folder '" + name + "' as it does not exist");
+        }
+        if (!Files.exists(source)) {
+            throw new DockerGenException("error while copying file/folder '" + source + "' as it does not exist");
+        }
+        long size = 0;
+        int files = 0;
+        try (Stream<Path> stream = Files.walk(source)) {
+            for (Path file : stream.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                size += Files.size(file);
+                files++;
+            }
+        } catch (IOException e) {
+            throw new DockerGenException("unable to measure docker build context entry '" + source + "': " +
+                    e.getMessage());
+        }
+        Entry entry = new Entry(name, source, size, files);
+        this.entries.add(entry);
+        return entry;
+    }
+
+    private List<Entry> sortedEntries() {
+        return this.entries.stream()
+                .sorted(Comparator.comparingLong((Entry entry) -> entry.size).reversed()
+                        .thenComparing(entry -> entry.name))
+                .collect(Collectors.toList());
+    }
+
+    private String getLargestEntries() {
+        return sortedEntries().stream()
+                .limit(LARGEST_ENTRY_COUNT)
+                .map(entry -> entry.name + " (" + formatSize(entry.size) + ")")
+                .collect(Collectors.joining(", "));
+    }
+
+    static String formatSize(long size) {
+        String[] units = {"B", "KB", "MB", "GB", "TB"};
+        double value = size;
+        int unit = 0;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return unit == 0 ? size + " B" : String.format(Locale.ROOT, "%.1f %s", value, units[unit]);
+    }
+
+    /**
+     * A file or directory of the build context.
+     */
+    private static class Entry {
+        private final String name;
+        private final Path source;
+        private final long size;
+        private final int files;
+
+        Entry(String name, Path source, long size, int files) {
+            this.name = name;
+            this.source = source;
+            this.size = size;
+            this.files = files;
+        }
+    }
+
+    /**
+     * An image layer created from build context entries.
+     */
+    private static class Layer {
+        private final String name;
+        private final List<Entry> entries = new ArrayList<>();
+
+        Layer(String name) {
+            this.name = name;
+        }
+
+        void add(Entry entry) {
+            this.entries.add(entry);
+        }
+
+        long getSize() {
+            return this.entries.stream().mapToLong(entry -> entry.size).sum();
+        }
+    }
+}
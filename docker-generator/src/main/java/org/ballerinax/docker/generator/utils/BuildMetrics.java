@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time, count and size of the work done in each phase of generating the docker artifacts of an image.
+ *
+ * Phases which run their work concurrently, such as staging, report the time summed over all of their files.
+ */
+public class BuildMetrics {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final int VERSION = 1;
+
+    private final Map<Phase, Counter> counters = new EnumMap<>(Phase.class);
+
+    public BuildMetrics() {
+        for (Phase phase : Phase.values()) {
+            this.counters.put(phase, new Counter());
+        }
+    }
+
+    /**
+     * Record a unit of work of a phase.
+     *
+     * @param phase phase
+     * @param nanos time taken by the work in nanoseconds
+     * @param bytes bytes processed by the work
+     */
+    public void record(Phase phase, long nanos, long bytes) {
+        Counter counter = this.counters.get(phase);
+        counter.count.increment();
+        counter.nanos.add(nanos);
+        counter.bytes.add(bytes);
+    }
+
+    public long getCount(Phase phase) {
+        return this.counters.get(phase).count.sum();
+    }
+
+    public long getMillis(Phase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(this.counters.get(phase).nanos.sum());
+    }
+
+    public long getBytes(Phase phase) {
+        return this.counters.get(phase).bytes.sum();
+    }
+
+    /**
+     * Create a human readable summary of the phases which did any work.
+     *
+     * @param logAppender log prefix of each line
+     * @return summary lines
+     */
+    public List<String> toSummary(String logAppender) {
+        List<String> lines = new ArrayList<>();
+        for (Phase phase : Phase.values()) {
+            long count = getCount(phase);
+            if (count == 0) {
+                continue;
+            }
+            StringBuilder line = new StringBuilder(logAppender).append(" - ").append(phase.label).append(": ")
+                    .append(getMillis(phase)).append(" ms");
+            if (count > 1) {
+                line.append(", ").append(count).append(" files");
+            }
+            if (getBytes(phase) > 0) {
+                line.append(", ").append(BuildContextReport.formatSize(getBytes(phase)));
+            }
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Serialize the metrics as JSON.
+     *
+     * @param imageName docker image name
+     * @return metrics content
+     * @throws IOException if the metrics cannot be serialized
+     */
+    public String toJson(String imageName) throws IOException {
+        ObjectNode metrics = MAPPER.createObjectNode();
+        metrics.put("version", VERSION);
+        metrics.put("image", imageName);
+        ObjectNode phasesNode = metrics.putObject("phases");
+        for (Phase phase : Phase.values()) {
+            ObjectNode phaseNode = phasesNode.putObject(phase.name().toLowerCase(Locale.ROOT));
+            phaseNode.put("count", getCount(phase));
+            phaseNode.put("millis", getMillis(phase));
+            phaseNode.put("bytes", getBytes(phase));
+        }
+        return MAPPER.writeValueAsString(metrics) + "\n";
+    }
+
+    /**
+     * Phase of generating the docker artifacts of an image.
+     */
+    public enum Phase {
+        PRUNE_JARS("prune unused jars"),
+        RENDER_DOCKERFILE("render Dockerfile"),
+        CONTEXT_REPORT("measure build context"),
+        CLASS_PATH_JAR("write class path jar"),
+        NATIVE_IMAGE_CONFIG("generate native image configuration"),
+        STAGE_DEPENDENCY_JARS("stage dependency jars"),
+        STAGE_EXECUTABLE_JAR("stage executable jar"),
+        STAGE_EXTERNAL_FILES("stage external files"),
+        CONTEXT_UPLOAD("upload build context"),
+        DAEMON_BUILD("build image"),
+        OCI_IMAGE("write OCI image"),
+        TOTAL("total");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Counters of a phase, updated concurrently by staging tasks.
+     */
+    private static class Counter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Generates a class path jar, an empty jar whose manifest Class-Path lists the jars of the image.
+ *
+ * The jar can also carry a package index (META-INF/INDEX.LIST) which maps each package to the jars containing it,
+ * so that the JVM opens a jar only when a class of one of its packages is loaded. Java 18 and later ignore the index.
+ * The index resolves a resource name from the first jar listed for it, so ClassLoader.getResources only returns
+ * resources of that jar.
+ */
+public class ClassPathJar {
+
+    private static final String INDEX_NAME = "META-INF/INDEX.LIST";
+    private static final String META_INF = "META-INF/";
+    private static final long ENTRY_TIME = 0L;
+
+    private ClassPathJar() {
+    }
+
+    /**
+     * Create the class path jar.
+     *
+     * @param jarName     file name of the class path jar
+     * @param classPath   class path entries relative to the class path jar, in class path order
+     * @param indexedJars class path entries with the jar files to index, empty to skip the package index
+     * @return jar content, the same for the same inputs
+     * @throws IOException if an indexed jar cannot be read
+     */
+    public static byte[] create(String jarName, List<String> classPath, Map<String, Path> indexedJars)
+            throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, String.join(" ", classPath));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JarOutputStream jar = new JarOutputStream(out)) {
+            addEntry(jar, JarFile.MANIFEST_NAME);
+            manifest.write(jar);
+            jar.closeEntry();
+            if (!indexedJars.isEmpty()) {
+                addEntry(jar, INDEX_NAME);
+                jar.write(createIndex(jarName, indexedJars).getBytes(StandardCharsets.UTF_8));
+                jar.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Create the package index of the given jars, in the format of the jar tool.
+     *
+     * @param jarName     file name of the class path jar
+     * @param indexedJars class path entries with the jar files to index
+     * @return package index
+     * @throws IOException if a jar cannot be read
+     */
+    public static String createIndex(String jarName, Map<String, Path> indexedJars) throws IOException {
+        StringBuilder index = new StringBuilder("JarIndex-Version: 1.0\n\n");
+        // the class path jar is listed first even though it has no packages
+        index.append(jarName).append("\n\n");
+        for (Map.Entry<String, Set<String>> entry : indexPackages(indexedJars).entrySet()) {
+            index.append(entry.getKey()).append("\n");
+            entry.getValue().forEach(packageName -> index.append(packageName).append("\n"));
+            index.append("\n");
+        }
+        return index.toString();
+    }
+
+    private static Map<String, Set<String>> indexPackages(Map<String, Path> indexedJars) throws IOException {
+        Map<String, Set<String>> packages = new LinkedHashMap<>();
+        for (Map.Entry<String, Path> indexedJar : indexedJars.entrySet()) {
+            Set<String> jarPackages = new TreeSet<>();
+            try (JarFile jarFile = new JarFile(indexedJar.getValue().toFile())) {
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    String name = entry.getName();
+                    if (name.startsWith(META_INF)) {
+                        // service descriptors and other resources are looked up by their full name, as the jar tool
+                        // does with the sun.misc.JarIndex.metaInfFilenames property
+                        if (!entry.isDirectory() && !name.equals(JarFile.MANIFEST_NAME) && !name.equals(INDEX_NAME)
+                                && !name.startsWith(META_INF + "versions/")) {
+                            jarPackages.add(name);
+                        }
+                        continue;
+                    }
+                    int separator = name.lastIndexOf('/');
+                    jarPackages.add(separator < 0 ? name : name.substring(0, separator));
+                }
+            }
+            packages.put(indexedJar.getKey(), jarPackages);
+        }
+        return packages;
+    }
+
+    private static void addEntry(JarOutputStream jar, String name) throws IOException {
+        JarEntry entry = new JarEntry(name);
+        entry.setTime(ENTRY_TIME);
+        jar.putNextEntry(entry);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.utils;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.core.DefaultDockerClientConfig;
+import com.github.dockerjava.core.DockerClientBuilder;
+import com.github.dockerjava.core.LocalDirectorySSLConfig;
+import com.github.dockerjava.core.RemoteApiVersion;
+import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
+import com.github.dockerjava.transport.DockerHttpClient;
+import org.ballerinax.docker.generator.models.DockerModel;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.printDebug;
+
+/**
+ * Process wide registry of docker clients.
+ *
+ * Clients are created on first use and shared by every model with the same docker settings, so the connection pool
+ * of a client is reused across handlers. The clients are closed when the JVM shuts down.
+ */
+public class DockerClientRegistry {
+
+    private static final Map<ClientKey, DockerClient> CLIENTS = new ConcurrentHashMap<>();
+    private static final AtomicBoolean SHUTDOWN_HOOK_ADDED = new AtomicBoolean();
+
+    private DockerClientRegistry() {
+    }
+
+    /**
+     * Get the docker client for the docker settings of the model, creating it if it does not exist yet.
+     *
+     * @param dockerModel docker model
+     * @return shared docker client
+     */
+    public static DockerClient getClient(DockerModel dockerModel) {
+        if (SHUTDOWN_HOOK_ADDED.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(DockerClientRegistry::closeAll,
+                    "docker-client-shutdown"));
+        }
+        return CLIENTS.computeIfAbsent(new ClientKey(dockerModel), key -> createClient(dockerModel));
+    }
+
+    /**
+     * Close all docker clients of the registry. Clients requested afterwards are created again.
+     */
+    public static void closeAll() {
+        List<ClientKey> keys = new ArrayList<>(CLIENTS.keySet());
+        for (ClientKey key : keys) {
+            DockerClient dockerClient = CLIENTS.remove(key);
+            if (null == dockerClient) {
+                continue;
+            }
+            try {
+                dockerClient.close();
+            } catch (IOException e) {
+                printDebug("unable to close docker client of `" + key.dockerHost + "`: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Create the docker client configuration from the docker settings of the model.
+     *
+     * @param dockerModel docker model
+     * @return docker client configuration
+     */
+    public static DefaultDockerClientConfig createClientConfig(DockerModel dockerModel) {
+        DefaultDockerClientConfig.Builder dockerClientConfigBuilder =
+                DefaultDockerClientConfig.createDefaultConfigBuilder();
+
+        // if windows, consider DOCKER_HOST as "tcp://localhost:2375"
+        if (System.getProperty("os.name").toLowerCase(Locale.getDefault()).contains("win")) {
+            dockerClientConfigBuilder.withDockerHost("tcp://localhost:2375");
+        }
+
+        // set docker host
+        if (null != dockerModel.getDockerHost()) {
+            dockerClientConfigBuilder.withDockerHost(dockerModel.getDockerHost());
+        }
+
+        // set docker cert path
+        if (null != dockerModel.getDockerCertPath()) {
+            dockerClientConfigBuilder.withDockerCertPath(dockerModel.getDockerCertPath());
+        }
+
+        // set docker API version
+        if (null != dockerModel.getDockerAPIVersion()) {
+            dockerClientConfigBuilder.withApiVersion(dockerModel.getDockerAPIVersion());
+        }
+
+        // set docker registry url
+        if (null != dockerModel.getRegistry()) {
+            dockerClientConfigBuilder.withRegistryUrl(dockerModel.getRegistry());
+        }
+
+        if (null != dockerModel.getDockerConfig()) {
+            dockerClientConfigBuilder.withDockerConfig(dockerModel.getDockerConfig());
+        }
+
+        return dockerClientConfigBuilder.build();
+    }
+
+    private static DockerClient createClient(DockerModel dockerModel) {
+        DefaultDockerClientConfig dockerClientConfig = createClientConfig(dockerModel);
+        printDebug("docker client host: " + dockerClientConfig.getDockerHost());
+
+        if (!dockerClientConfig.getApiVersion().equals(RemoteApiVersion.unknown())) {
+            printDebug("docker client API version: " + dockerClientConfig.getApiVersion().getVersion());
+        } else {
+            printDebug("docker client API version: not-set");
+        }
+
+        if (null != dockerClientConfig.getSSLConfig() &&
+                dockerClientConfig.getSSLConfig() instanceof LocalDirectorySSLConfig) {
+            LocalDirectorySSLConfig sslConfig = (LocalDirectorySSLConfig) dockerClientConfig.getSSLConfig();
+            printDebug("docker client certs path: " + sslConfig.getDockerCertPath());
+            printDebug("docker client TLS verify: true");
+        } else {
+            printDebug("docker client TLS verify: false");
+        }
+
+        DockerHttpClient httpClient = new ApacheDockerHttpClient.Builder()
+                .dockerHost(dockerClientConfig.getDockerHost())
+                .sslConfig(dockerClientConfig.getSSLConfig())
+                .maxConnections(Math.max(1, dockerModel.getDockerMaxConnections()))
+                .connectionTimeout(Duration.ofSeconds(dockerModel.getDockerConnectionTimeoutSeconds()))
+                .responseTimeout(Duration.ofSeconds(dockerModel.getDockerResponseTimeoutSeconds()))
+                .build();
+
+        return DockerClientBuilder.getInstance(dockerClientConfig).withDockerHttpClient(httpClient).build();
+    }
+
+    /**
+     * Docker settings which identify a shared client.
+     */
+    private static class ClientKey {
+        private final String dockerHost;
+        private final String dockerCertPath;
+        private final String dockerAPIVersion;
+        private final String dockerConfig;
+        private final String registry;
+        private final int maxConnections;
+        private final int connectionTimeoutSeconds;
+        private final int responseTimeoutSeconds;
+
+        ClientKey(DockerModel dockerModel) {
+            this.dockerHost = dockerModel.getDockerHost();
+            this.dockerCertPath = dockerModel.getDockerCertPath();
+            this.dockerAPIVersion = dockerModel.getDockerAPIVersion();
+            this.dockerConfig = dockerModel.getDockerConfig();
+            this.registry = dockerModel.getRegistry();
+            this.maxConnections = dockerModel.getDockerMaxConnections();
+            this.connectionTimeoutSeconds = dockerModel.getDockerConnectionTimeoutSeconds();
+            this.responseTimeoutSeconds = dockerModel.getDockerResponseTimeoutSeconds();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ClientKey)) {
+                return false;
+            }
+            ClientKey that = (ClientKey) o;
+            return this.maxConnections == that.maxConnections &&
+                    this.connectionTimeoutSeconds == that.connectionTimeoutSeconds &&
+                    this.responseTimeoutSeconds == that.responseTimeoutSeconds &&
+                    Objects.equals(this.dockerHost, that.dockerHost) &&
+                    Objects.equals(this.dockerCertPath, that.dockerCertPath) &&
+                    Objects.equals(this.dockerAPIVersion, that.dockerAPIVersion) &&
+                    Objects.equals(this.dockerConfig, that.dockerConfig) &&
+                    Objects.equals(this.registry, that.registry);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.dockerHost, this.dockerCertPath, this.dockerAPIVersion, this.dockerConfig,
+                    this.registry, this.maxConnections, this.connectionTimeoutSeconds, this.responseTimeoutSeconds);
+        }
+    }
+}
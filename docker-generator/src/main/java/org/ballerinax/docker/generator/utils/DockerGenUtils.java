@@ -19,17 +19,27 @@
 package org.ballerinax.docker.generator.utils;
 
 
-import org.apache.commons.io.FileUtils;
 import org.ballerinax.docker.generator.DockerGenConstants;
 import org.ballerinax.docker.generator.exceptions.DockerGenException;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Util methods used for artifact generation.
@@ -114,33 +124,134 @@ public class DockerGenUtils {
      * @param destination destination file/directory path
      */
     public static void copyFileOrDirectory(Path source, Path destination) throws DockerGenException {
+        copyFileOrDirectory(source, destination, false);
+    }
+
+    /**
+     * Copy file or directory.
+     *
+     * Read-only sources, such as the dependency jars of the package cache, are hard linked to the destination when
+     * possible, as neither side is written after staging. Other sources are copied through the file channels, so that
+     * changing the staged file cannot change the source. The strategy used is reported in the debug logs.
+     *
+     * @param source         source file/directory path
+     * @param destination    destination file/directory path
+     * @param readOnlySource whether the source is never written, so that it may be hard linked
+     */
+    public static void copyFileOrDirectory(Path source, Path destination, boolean readOnlySource)
+            throws DockerGenException {
         printDebug("copying file(s) from `" + source + "` to `" + destination + "`.");
-        File src = source.toFile();
-        
-        if (!src.exists()) {
+        if (!Files.exists(source)) {
             throw new DockerGenException("error while copying file/folder '" + source + "' as it does not exist");
         }
-        
-        File dst = destination.toFile();
+
         try {
-            
             // if source is file
             if (Files.isRegularFile(source)) {
-                if (Files.isDirectory(dst.toPath())) {
-                    // if destination is directory
-                    FileUtils.copyFileToDirectory(src, dst);
-                } else {
-                    // if destination is file
-                    FileUtils.copyFile(src, dst);
-                }
+                // if destination is directory copy into it, otherwise copy as the destination file
+                Path target = Files.isDirectory(destination) ? destination.resolve(source.getFileName()) :
+                        destination;
+                printDebug("copied `" + source.getFileName() + "` using " + stageFile(source, target, readOnlySource) +
+                        ".");
             } else if (Files.isDirectory(source)) {
-                FileUtils.copyDirectory(src, dst);
+                Map<StagingStrategy, Integer> strategies = new EnumMap<>(StagingStrategy.class);
+                List<Path> paths;
+                try (Stream<Path> stream = Files.walk(source)) {
+                    paths = stream.collect(Collectors.toList());
+                }
+                for (Path path : paths) {
+                    Path target = destination.resolve(source.relativize(path).toString());
+                    if (Files.isDirectory(path)) {
+                        Files.createDirectories(target);
+                    } else {
+                        strategies.merge(stageFile(path, target, readOnlySource), 1, Integer::sum);
+                    }
+                }
+                printDebug("copied `" + source.getFileName() + "` using " + strategies + ".");
             }
         } catch (IOException e) {
             throw new DockerGenException("error while copying file/folder '" + source + "' to '" + destination + "'");
         }
     }
-    
+
+    /**
+     * Stage a file at the target path, preferring a hard link over copying the file content for read-only sources.
+     *
+     * @param source         source file path
+     * @param target         target file path
+     * @param readOnlySource whether the source may be hard linked
+     * @return strategy used to stage the file
+     * @throws IOException if the file cannot be staged
+     */
+    private static StagingStrategy stageFile(Path source, Path target, boolean readOnlySource) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        if (readOnlySource) {
+            if (Files.exists(target) && Files.isSameFile(source, target)) {
+                return StagingStrategy.HARD_LINK;
+            }
+            Files.deleteIfExists(target);
+            try {
+                Files.createLink(target, source);
+                return StagingStrategy.HARD_LINK;
+            } catch (FileAlreadyExistsException e) {
+                // the same file was staged concurrently
+                if (Files.isSameFile(source, target)) {
+                    return StagingStrategy.HARD_LINK;
+                }
+            } catch (IOException | UnsupportedOperationException | SecurityException e) {
+                // different file stores or links not supported, fall back to copying
+            }
+        }
+
+        // copy to a temporary file first, as writing to the target would truncate the source if the target was linked
+        // to it in the meantime
+        Path tempFile = Files.createTempFile(parent, ".staging-", ".tmp");
+        try {
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                long size = in.size();
+                long position = 0;
+                while (position < size) {
+                    position += in.transferTo(position, size - position, out);
+                }
+            }
+            Files.setLastModifiedTime(tempFile, Files.getLastModifiedTime(source));
+            // temporary files are only accessible by the owner, the staged file keeps the permissions of the source
+            PosixFileAttributeView sourceAttributes = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+            if (null != sourceAttributes) {
+                Files.setPosixFilePermissions(tempFile, sourceAttributes.readAttributes().permissions());
+            }
+            try {
+                // a plain replacing move deletes the target first, which fails if the same file is staged concurrently
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return StagingStrategy.CHANNEL_TRANSFER;
+    }
+
+    /**
+     * Strategies used to stage files in the docker output directory.
+     */
+    private enum StagingStrategy {
+        HARD_LINK,
+        CHANNEL_TRANSFER
+    }
+
+    /**
+     * Get the message of an error, or its class name if it has no message.
+     *
+     * @param throwable The error.
+     * @return Error message.
+     */
+    public static String getErrorMessage(Throwable throwable) {
+        return null == throwable.getMessage() ? throwable.getClass().getName() : throwable.getMessage();
+    }
+
     /**
      * Cleans error message getting rid of java class names.
      *
@@ -21,8 +21,10 @@ package org.ballerinax.docker.generator.utils;
 import org.ballerinax.docker.generator.exceptions.DockerGenException;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.regex.Matcher;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 /**
@@ -45,21 +47,36 @@ import java.util.regex.Pattern;
  */
 public class DockerImageName {
     
-    private static final String nameComponentRegexp = "[a-z0-9]+(?:(?:(?:[._]|__|[-]*)[a-z0-9]+)+)?";
+    // separators are required between the alphanumeric runs and all quantifiers are possessive, so a name is matched
+    // in linear time without backtracking
+    private static final String NAME_COMPONENT_REGEXP = "[a-z0-9]++(?:(?:[._]|__|-++)[a-z0-9]++)*+";
     
-    private static final String domainComponentRegexp = "(?:[a-zA-Z0-9]|[a-zA-Z0-9][a-zA-Z0-9-]*[a-zA-Z0-9])";
+    private static final String DOMAIN_COMPONENT_REGEXP = "(?:[a-zA-Z0-9]|[a-zA-Z0-9][a-zA-Z0-9-]*[a-zA-Z0-9])";
     
-    private final Pattern nameComponentPattern = Pattern.compile(nameComponentRegexp);
+    private static final Pattern NAME_COMPONENT_PATTERN = Pattern.compile(NAME_COMPONENT_REGEXP);
     
-    private final Pattern imageNamePattern = Pattern.compile(nameComponentRegexp + "(?:(?:/" + nameComponentRegexp +
-                                                             ")+)?");
+    private static final Pattern IMAGE_NAME_PATTERN = Pattern.compile(NAME_COMPONENT_REGEXP + "(?:/" +
+                                                                      NAME_COMPONENT_REGEXP + ")*+");
     
-    private final Pattern domainPattern = Pattern.compile("^" + domainComponentRegexp + "(?:\\." +
-                                                          domainComponentRegexp + ")*(?::[0-9]+)?$");
+    private static final Pattern DOMAIN_PATTERN = Pattern.compile("^" + DOMAIN_COMPONENT_REGEXP + "(?:\\." +
+                                                                  DOMAIN_COMPONENT_REGEXP + ")*(?::[0-9]+)?$");
     
-    private final Pattern tagPattern = Pattern.compile("^[\\w][\\w.-]{0,127}$");
+    private static final Pattern TAG_PATTERN = Pattern.compile("^[\\w][\\w.-]{0,127}$");
     
-    private final Pattern digestPattern = Pattern.compile("^sha256:[a-z0-9]{32,}$");
+    private static final Pattern DIGEST_PATTERN = Pattern.compile("^sha256:[a-z0-9]{32,}$");
+    
+    private static final Pattern PATH_SEPARATOR_PATTERN = Pattern.compile("\\s*+/\\s*+");
+    
+    private static final int PARSE_CACHE_SIZE = 256;
+    
+    // parsed names are immutable, so they are shared by all callers validating the same name
+    private static final Map<String, DockerImageName> PARSE_CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(PARSE_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, DockerImageName> eldest) {
+                    return size() > PARSE_CACHE_SIZE;
+                }
+            });
     
     // The repository part of the full image
     private String repository;
@@ -106,15 +123,16 @@ public class DockerImageName {
             fullName = digestParts[0];
         }
         
-        // check for tag
-        Pattern tagPattern = Pattern.compile("^(.+?)(?::([^:/]+))?$");
-        Matcher matcher = tagPattern.matcher(fullName);
-        if (!matcher.matches()) {
+        // check for tag, which follows the last colon unless the colon is part of the registry port
+        if (fullName.isEmpty()) {
             throw new IllegalArgumentException(fullName + " is not a proper image name ([registry/][repo][:port]");
         }
+        int tagSeparator = fullName.lastIndexOf(':');
+        boolean hasTag = tagSeparator > 0 && tagSeparator < fullName.length() - 1 &&
+                fullName.indexOf('/', tagSeparator) < 0;
         // extract tag if it exists
-        tag = givenTag != null ? givenTag : matcher.group(2);
-        String rest = matcher.group(1);
+        tag = givenTag != null ? givenTag : (hasTag ? fullName.substring(tagSeparator + 1) : null);
+        String rest = hasTag ? fullName.substring(0, tagSeparator) : fullName;
         
         // extract registry, repository, user
         parseComponentsBeforeTag(rest);
@@ -132,8 +150,14 @@ public class DockerImageName {
     }
     
     public static DockerImageName parseName(String imageName) throws DockerGenException {
+        DockerImageName cachedName = PARSE_CACHE.get(imageName);
+        if (null != cachedName) {
+            return cachedName;
+        }
         try {
-            return new DockerImageName(imageName);
+            DockerImageName parsedName = new DockerImageName(imageName);
+            PARSE_CACHE.put(imageName, parsedName);
+            return parsedName;
         } catch (IllegalArgumentException iaEx) {
             throw new DockerGenException(iaEx.getMessage());
         }
@@ -261,9 +285,9 @@ public class DockerImageName {
         List<String> errors = new ArrayList<>();
         // Strip off user from repository name
         String image = user != null ? repository.substring(user.length() + 1) : repository;
-        Object[] checks = new Object[]{"registry url", domainPattern, registry, "image name", imageNamePattern, image,
-                                       "user", nameComponentPattern, user, "tag", tagPattern, tag, "digest",
-                                       digestPattern, digest};
+        Object[] checks = new Object[]{"registry url", DOMAIN_PATTERN, registry, "image name", IMAGE_NAME_PATTERN,
+                                       image, "user", NAME_COMPONENT_PATTERN, user, "tag", TAG_PATTERN, tag, "digest",
+                                       DIGEST_PATTERN, digest};
         for (int i = 0; i < checks.length; i += 3) {
             String value = (String) checks[i + 2];
             Pattern checkPattern = (Pattern) checks[i + 1];
@@ -278,7 +302,7 @@ public class DockerImageName {
     }
     
     private void parseComponentsBeforeTag(String rest) {
-        String[] parts = rest.split("\\s*/\\s*");
+        String[] parts = PATH_SEPARATOR_PATTERN.split(rest);
         if (parts.length == 1) {
             registry = null;
             user = null;
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.utils;
+
+import org.ballerinax.docker.generator.models.DockerfileModel;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Renders a {@link DockerfileModel} for a target platform.
+ *
+ * Relative paths of the model are resolved against the working directory of the platform. Windows Dockerfiles use
+ * forward slashes in paths, as a trailing backslash would be read as a line continuation. Instructions are appended
+ * directly to the output, so large Dockerfiles can be streamed to disk without building them in memory.
+ */
+public class DockerfileRenderer {
+
+    private static final String LINUX_WORK_DIR = "/home/ballerina";
+    private static final String WINDOWS_WORK_DIR = "C:/ballerina/home";
+
+    private final String workDir;
+    private final String lineSeparator;
+
+    public DockerfileRenderer(boolean windows) {
+        this.workDir = windows ? WINDOWS_WORK_DIR : LINUX_WORK_DIR;
+        this.lineSeparator = windows ? System.lineSeparator() : "\n";
+    }
+
+    /**
+     * Render the Dockerfile content.
+     *
+     * @param dockerfileModel Dockerfile model
+     * @return Dockerfile content
+     */
+    public String render(DockerfileModel dockerfileModel) {
+        StringBuilder dockerfileContent = new StringBuilder(estimateLength(dockerfileModel));
+        try {
+            render(dockerfileModel, dockerfileContent);
+        } catch (IOException e) {
+            // appending to a string builder does not fail
+            throw new UncheckedIOException(e);
+        }
+        return dockerfileContent.toString();
+    }
+
+    /**
+     * Render the Dockerfile to a file, streaming the instructions to disk without building the content in memory.
+     *
+     * @param dockerfileModel Dockerfile model
+     * @param targetFilePath  Dockerfile path
+     * @throws IOException if the file cannot be written
+     */
+    public void render(DockerfileModel dockerfileModel, Path targetFilePath) throws IOException {
+        Files.createDirectories(targetFilePath.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(targetFilePath, StandardCharsets.UTF_8)) {
+            render(dockerfileModel, writer);
+        }
+    }
+
+    /**
+     * Render the Dockerfile instructions to the given output.
+     *
+     * @param dockerfileModel Dockerfile model
+     * @param out             output to append the instructions to
+     * @throws IOException if the output cannot be written
+     */
+    public void render(DockerfileModel dockerfileModel, Appendable out) throws IOException {
+        out.append("# Auto Generated Dockerfile").append(this.lineSeparator);
+        boolean firstStage = true;
+        for (DockerfileModel.Stage stage : dockerfileModel.getStages()) {
+            if (!firstStage) {
+                out.append(this.lineSeparator);
+            }
+            firstStage = false;
+            out.append("FROM ").append(stage.getBaseImage());
+            if (null != stage.getName()) {
+                out.append(" AS ").append(stage.getName());
+            }
+            out.append(this.lineSeparator).append(this.lineSeparator);
+            for (DockerfileModel.Instruction instruction : stage.getInstructions()) {
+                render(instruction, out);
+                out.append(this.lineSeparator);
+            }
+        }
+    }
+
+    private void render(DockerfileModel.Instruction instruction, Appendable out) throws IOException {
+        List<String> arguments = instruction.getArguments();
+        switch (instruction.getType()) {
+            case LABEL:
+                out.append("LABEL ").append(arguments.get(0)).append("=\"").append(arguments.get(1)).append('"');
+                break;
+            case WORKDIR:
+                out.append("WORKDIR ").append(this.workDir);
+                break;
+            case COPY:
+                out.append("COPY ");
+                boolean fromStage = null != instruction.getFromStage();
+                if (fromStage) {
+                    // files of a previous stage are at the same location as in this stage
+                    out.append("--from=").append(instruction.getFromStage()).append(' ');
+                }
+                int destinationIndex = arguments.size() - 1;
+                for (int i = 0; i < destinationIndex; i++) {
+                    if (fromStage) {
+                        appendResolved(arguments.get(i), out);
+                    } else {
+                        out.append(arguments.get(i));
+                    }
+                    out.append(' ');
+                }
+                appendResolved(arguments.get(destinationIndex), out);
+                break;
+            case RUN:
+                out.append("RUN ");
+                for (int i = 0; i < arguments.size(); i++) {
+                    if (i > 0) {
+                        out.append(" \\").append(this.lineSeparator).append("    && ");
+                    }
+                    out.append(arguments.get(i));
+                }
+                break;
+            case ENV:
+                out.append("ENV ").append(arguments.get(0)).append('=');
+                appendEnvValue(arguments.get(1), out);
+                break;
+            case EXPOSE:
+                out.append("EXPOSE ").append(String.join(" ", arguments));
+                break;
+            case USER:
+                out.append("USER ").append(arguments.get(0));
+                break;
+            case CMD:
+                out.append(arguments.get(0));
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported instruction: " + instruction.getType());
+        }
+    }
+
+    private void appendResolved(String path, Appendable out) throws IOException {
+        if (path.startsWith("/") || isWindowsAbsolute(path)) {
+            out.append(path);
+        } else if (".".equals(path)) {
+            out.append(this.workDir);
+        } else {
+            out.append(this.workDir).append('/').append(path);
+        }
+    }
+
+    private int estimateLength(DockerfileModel dockerfileModel) {
+        // instruction keywords, separators and the resolved working directory are covered by a fixed allowance
+        int length = 64;
+        for (DockerfileModel.Stage stage : dockerfileModel.getStages()) {
+            length += stage.getBaseImage().length() + 32;
+            for (DockerfileModel.Instruction instruction : stage.getInstructions()) {
+                length += 16 + this.workDir.length();
+                for (String argument : instruction.getArguments()) {
+                    length += argument.length() + 8;
+                }
+            }
+        }
+        return length;
+    }
+
+    private static boolean isWindowsAbsolute(String path) {
+        return path.length() > 1 && path.charAt(1) == ':' && ((path.charAt(0) >= 'A' && path.charAt(0) <= 'Z') ||
+                (path.charAt(0) >= 'a' && path.charAt(0) <= 'z'));
+    }
+
+    private static void appendEnvValue(String value, Appendable out) throws IOException {
+        // values with whitespace, such as JVM options, must be quoted to be read as a single value
+        if (!value.startsWith("\"") && containsWhitespace(value)) {
+            out.append('"').append(value.replace("\"", "\\\"")).append('"');
+        } else {
+            out.append(value);
+        }
+    }
+
+    private static boolean containsWhitespace(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.utils;
+
+import org.ballerinalang.model.elements.PackageID;
+import org.ballerinax.docker.generator.models.DependencyJars;
+import org.ballerinax.docker.generator.models.JarLayerModel;
+import org.ballerinax.docker.generator.models.JarLayerModel.LayerGroup;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plans the image layers of the dependency jars.
+ *
+ * Jars are grouped by how often they change so that a change in a project module does not invalidate the layers of
+ * the Ballerina runtime and third-party jars. Each group is split into at most a fixed number of layers to keep the
+ * image well under the docker layer limit. A jar is assigned to a layer by the hash of its file name, so adding or
+ * updating one jar only changes the layer holding it.
+ */
+public class JarLayerPlanner {
+
+    private static final String OBSERVABILITY_JAR_SUFFIX = "-observability-symbols.jar";
+    private static final String[] BALLERINA_RUNTIME_PREFIXES = {"ballerina-", "ballerinai-"};
+    // project jars are named <org>-<package>-<version>.jar, sub modules <org>-<package>.<module>-<version>.jar
+    private static final char[] PROJECT_PREFIX_SEPARATORS = {'-', '.'};
+
+    private final int maxLayersPerGroup;
+
+    public JarLayerPlanner(int maxLayersPerGroup) {
+        this.maxLayersPerGroup = Math.max(1, maxLayersPerGroup);
+    }
+
+    /**
+     * Plan the layers for the given dependency jars.
+     *
+     * @param jarPaths    dependency jar paths
+     * @param appJarName  file name of the application jar
+     * @param pkgId       package id of the project, may be null
+     * @return layers ordered from the least to the most frequently changing, jars ordered by file name
+     */
+    public List<JarLayerModel> plan(Collection<Path> jarPaths, String appJarName, PackageID pkgId) {
+        return plan(new DependencyJars(jarPaths, appJarName, getProjectPrefix(pkgId)));
+    }
+
+    /**
+     * Plan the layers for an already classified snapshot of the dependency jars.
+     *
+     * @param dependencyJars dependency jars snapshot
+     * @return layers ordered from the least to the most frequently changing, jars ordered by file name
+     */
+    public List<JarLayerModel> plan(DependencyJars dependencyJars) {
+        List<JarLayerModel> layers = new ArrayList<>();
+        for (LayerGroup group : LayerGroup.values()) {
+            List<Path> jars = dependencyJars.getJars(group);
+            if (group == LayerGroup.APPLICATION) {
+                // application jars change on every build, keep each in its own top most layer.
+                jars.forEach(jar -> layers.add(new JarLayerModel(group, List.of(jar))));
+            } else {
+                layers.addAll(split(group, jars));
+            }
+        }
+        return layers;
+    }
+
+    /**
+     * Get the file name prefix of the project module jars.
+     *
+     * @param pkgId package id of the project, may be null
+     * @return file name prefix, null if the package id is not known
+     */
+    public static String getProjectPrefix(PackageID pkgId) {
+        return null == pkgId ? null : pkgId.orgName.value + "-" + pkgId.name.value;
+    }
+
+    /**
+     * Classify a dependency jar into a layer group.
+     *
+     * @param fileName      jar file name
+     * @param appJarName    file name of the application jar
+     * @param projectPrefix file name prefix of the project module jars, may be null
+     * @return layer group of the jar
+     */
+    public static LayerGroup classify(String fileName, String appJarName, String projectPrefix) {
+        if (fileName.endsWith(OBSERVABILITY_JAR_SUFFIX) || (null != appJarName && fileName.endsWith(appJarName))) {
+            return LayerGroup.APPLICATION;
+        }
+        if (null != projectPrefix && isProjectJar(fileName, projectPrefix)) {
+            return LayerGroup.PROJECT;
+        }
+        for (String prefix : BALLERINA_RUNTIME_PREFIXES) {
+            if (fileName.startsWith(prefix)) {
+                return LayerGroup.BALLERINA_RUNTIME;
+            }
+        }
+        return LayerGroup.THIRD_PARTY;
+    }
+
+    private static boolean isProjectJar(String fileName, String projectPrefix) {
+        if (!fileName.startsWith(projectPrefix) || fileName.length() == projectPrefix.length()) {
+            return false;
+        }
+        char separator = fileName.charAt(projectPrefix.length());
+        for (char projectSeparator : PROJECT_PREFIX_SEPARATORS) {
+            if (separator == projectSeparator) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<JarLayerModel> split(LayerGroup group, List<Path> jars) {
+        List<List<Path>> buckets = new ArrayList<>();
+        for (int i = 0; i < this.maxLayersPerGroup; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (Path jar : jars) {
+            // String.hashCode is specified, so a jar lands in the same bucket on every build and machine.
+            int bucket = Math.floorMod(jar.getFileName().toString().hashCode(), this.maxLayersPerGroup);
+            buckets.get(bucket).add(jar);
+        }
+        List<JarLayerModel> layers = new ArrayList<>();
+        for (List<Path> bucket : buckets) {
+            if (!bucket.isEmpty()) {
+                layers.add(new JarLayerModel(group, bucket));
+            }
+        }
+        return layers;
+    }
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.utils;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Finds dependency jars which are never referenced by the classes of the image.
+ *
+ * Classes are reachable from the classes of the executable jar, which holds the module init class, and of the jars
+ * which are always kept. References are read from the constant pool of each reachable class, including string
+ * constants which name a known class so that classes loaded by name through reflection are kept. Service providers
+ * registered in META-INF/services become reachable once their service type is referenced. Jars without classes only
+ * hold resources which are looked up by name, so they are never pruned along with the jars matching the allow-list.
+ */
+public class JarPruner {
+
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String SERVICES_DIR = "META-INF/services/";
+    private static final String VERSIONS_DIR = "META-INF/versions/";
+    private static final int CLASS_FILE_MAGIC = 0xCAFEBABE;
+    private static final Pattern DESCRIPTOR_TYPE = Pattern.compile("L([^;<>\\[]+)[;<]");
+
+    private final List<PathMatcher> allowList;
+
+    /**
+     * Create a pruner.
+     *
+     * @param allowList glob patterns of jar file names which are never pruned
+     */
+    public JarPruner(Collection<String> allowList) {
+        this.allowList = allowList.stream()
+                .map(pattern -> FileSystems.getDefault().getPathMatcher("glob:" + pattern))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Find the candidate jars which are not reachable.
+     *
+     * @param executableJar executable jar of the module
+     * @param keptJars      dependency jars which are always kept
+     * @param candidateJars dependency jars which may be pruned
+     * @return unreachable candidate jars, in the given order
+     * @throws IOException if a jar cannot be read
+     */
+    public List<Path> findUnusedJars(Path executableJar, Collection<Path> keptJars, Collection<Path> candidateJars)
+            throws IOException {
+        List<Path> candidates = candidateJars.stream().filter(jar -> !isAllowed(jar)).collect(Collectors.toList());
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        List<Path> rootJars = new ArrayList<>();
+        rootJars.add(executableJar);
+        rootJars.addAll(keptJars);
+        candidateJars.stream().filter(this::isAllowed).forEach(rootJars::add);
+
+        List<JarFile> jarFiles = new ArrayList<>();
+        try {
+            Map<String, List<ClassLocation>> classes = new HashMap<>();
+            Map<String, List<ClassLocation>> services = new HashMap<>();
+            Deque<ClassLocation> pending = new ArrayDeque<>();
+            for (Path rootJar : rootJars) {
+                JarFile jarFile = open(jarFiles, rootJar);
+                indexClasses(jarFile, rootJar, classes, null).forEach(pending::add);
+            }
+            Set<Path> usedJars = new HashSet<>();
+            for (Path candidate : candidates) {
+                if (indexClasses(open(jarFiles, candidate), candidate, classes, services).isEmpty()) {
+                    // resources, such as configs and native libraries, are looked up by name at runtime
+                    usedJars.add(candidate.toAbsolutePath().normalize());
+                }
+            }
+
+            Set<String> referencedNames = new HashSet<>();
+            Set<ClassLocation> visited = new HashSet<>(pending);
+            while (!pending.isEmpty()) {
+                while (!pending.isEmpty()) {
+                    ClassLocation location = pending.poll();
+                    usedJars.add(location.jar.toAbsolutePath().normalize());
+                    for (String name : readReferences(location)) {
+                        if (referencedNames.add(name)) {
+                            enqueue(classes.get(name), visited, pending);
+                        }
+                    }
+                }
+                // providers of referenced service types are loaded by the service loader
+                for (Map.Entry<String, List<ClassLocation>> service : services.entrySet()) {
+                    if (referencedNames.contains(service.getKey())) {
+                        enqueue(service.getValue(), visited, pending);
+                    }
+                }
+            }
+            return candidates.stream().filter(jar -> !usedJars.contains(jar.toAbsolutePath().normalize()))
+                    .collect(Collectors.toList());
+        } finally {
+            for (JarFile jarFile : jarFiles) {
+                jarFile.close();
+            }
+        }
+    }
+
+    private boolean isAllowed(Path jar) {
+        Path fileName = jar.getFileName();
+        return this.allowList.stream().anyMatch(matcher -> matcher.matches(fileName));
+    }
+
+    private static JarFile open(List<JarFile> jarFiles, Path jar) throws IOException {
+        JarFile jarFile = new JarFile(jar.toFile());
+        jarFiles.add(jarFile);
+        return jarFile;
+    }
+
+    /**
+     * Index the classes of a jar by their internal name, along with the service providers it registers.
+     *
+     * @return classes of the jar
+     */
+    private static List<ClassLocation> indexClasses(JarFile jarFile, Path jar,
+                                                    Map<String, List<ClassLocation>> classes,
+                                                    Map<String, List<ClassLocation>> services) throws IOException {
+        List<ClassLocation> jarClasses = new ArrayList<>();
+        List<JarEntry> serviceEntries = new ArrayList<>();
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            String name = entry.getName();
+            if (entry.isDirectory()) {
+                continue;
+            }
+            if (name.startsWith(SERVICES_DIR)) {
+                serviceEntries.add(entry);
+                continue;
+            }
+            if (!name.endsWith(CLASS_SUFFIX) || name.endsWith("module-info.class")) {
+                continue;
+            }
+            String className = name.substring(0, name.length() - CLASS_SUFFIX.length());
+            if (className.startsWith(VERSIONS_DIR)) {
+                // classes of multi-release jars have the same name as their base version
+                int versionEnd = className.indexOf('/', VERSIONS_DIR.length());
+                className = className.substring(versionEnd + 1);
+            }
+            ClassLocation location = new ClassLocation(jar, jarFile, entry);
+            classes.computeIfAbsent(className, key -> new ArrayList<>()).add(location);
+            jarClasses.add(location);
+        }
+        if (null != services) {
+            for (JarEntry serviceEntry : serviceEntries) {
+                String serviceType = serviceEntry.getName().substring(SERVICES_DIR.length()).replace('.', '/');
+                for (String provider : readProviders(jarFile, serviceEntry)) {
+                    String providerName = provider.replace('.', '/');
+                    jarClasses.stream().filter(location -> location.entry.getName().equals(providerName +
+                            CLASS_SUFFIX)).forEach(location -> services.computeIfAbsent(serviceType,
+                            key -> new ArrayList<>()).add(location));
+                }
+            }
+        }
+        return jarClasses;
+    }
+
+    private static List<String> readProviders(JarFile jarFile, JarEntry serviceEntry) throws IOException {
+        List<String> providers = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(jarFile.getInputStream(serviceEntry),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while (null != (line = reader.readLine())) {
+                int comment = line.indexOf('#');
+                String provider = (comment < 0 ? line : line.substring(0, comment)).trim();
+                if (!provider.isEmpty()) {
+                    providers.add(provider);
+                }
+            }
+        }
+        return providers;
+    }
+
+    private static void enqueue(List<ClassLocation> locations, Set<ClassLocation> visited,
+                                Deque<ClassLocation> pending) {
+        if (null == locations) {
+            return;
+        }
+        for (ClassLocation location : locations) {
+            if (visited.add(location)) {
+                pending.add(location);
+            }
+        }
+    }
+
+    /**
+     * Read the names of the classes a class file may refer to from its constant pool. Class names in descriptors,
+     * signatures and string constants are included, so the result is a superset of the referenced classes.
+     */
+    private static Set<String> readReferences(ClassLocation location) throws IOException {
+        Set<String> names = new LinkedHashSet<>();
+        try (InputStream in = location.jarFile.getInputStream(location.entry);
+             DataInputStream data = new DataInputStream(in)) {
+            if (data.readInt() != CLASS_FILE_MAGIC) {
+                return names;
+            }
+            data.readUnsignedShort();
+            data.readUnsignedShort();
+            int constantPoolCount = data.readUnsignedShort();
+            for (int i = 1; i < constantPoolCount; i++) {
+                int tag = data.readUnsignedByte();
+                switch (tag) {
+                    case 1:
+                        addNames(data.readUTF(), names);
+                        break;
+                    case 7:
+                    case 8:
+                    case 16:
+                    case 19:
+                    case 20:
+                        data.readUnsignedShort();
+                        break;
+                    case 15:
+                        data.readUnsignedByte();
+                        data.readUnsignedShort();
+                        break;
+                    case 3:
+                    case 4:
+                    case 9:
+                    case 10:
+                    case 11:
+                    case 12:
+                    case 17:
+                    case 18:
+                        data.readInt();
+                        break;
+                    case 5:
+                    case 6:
+                        // long and double constants take two entries
+                        data.readLong();
+                        i++;
+                        break;
+                    default:
+                        throw new IOException("invalid constant pool tag " + tag + " in '" +
+                                location.entry.getName() + "' of '" + location.jar + "'");
+                }
+            }
+        }
+        return names;
+    }
+
+    private static void addNames(String value, Set<String> names) {
+        // class names, string constants naming a class and class names in descriptors or signatures
+        names.add(value.replace('.', '/'));
+        if (value.indexOf(';') > 0) {
+            Matcher matcher = DESCRIPTOR_TYPE.matcher(value);
+            while (matcher.find()) {
+                names.add(matcher.group(1));
+            }
+        }
+    }
+
+    /**
+     * A class file inside a jar.
+     */
+    private static class ClassLocation {
+        private final Path jar;
+        private final JarFile jarFile;
+        private final JarEntry entry;
+
+        ClassLocation(Path jar, JarFile jarFile, JarEntry entry) {
+            this.jar = jar;
+            this.jarFile = jarFile;
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.wso2.ballerinalang.compiler.bir.codegen.JvmConstants.CONFIGURATION_CLASS_NAME;
+import static org.wso2.ballerinalang.compiler.bir.codegen.JvmConstants.MODULE_INIT_CLASS_NAME;
+import static org.wso2.ballerinalang.compiler.bir.codegen.JvmConstants.VALUE_CLASS_PREFIX;
+
+/**
+ * Reflection and resource configuration of a GraalVM native image of a Ballerina module.
+ *
+ * The Ballerina runtime loads the module init classes, the configuration mappers and the value classes of records and
+ * objects by name, so these classes of the executable jar are registered for reflection. The class names are taken
+ * from the code generator constants of the compiler. The resources of the executable jar and the service provider
+ * files of all jars are included in the executable.
+ */
+public class NativeImageConfig {
+
+    public static final String REFLECT_CONFIG_FILE = "reflect-config.json";
+    public static final String RESOURCE_CONFIG_FILE = "resource-config.json";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String CLASS_FILE_SUFFIX = ".class";
+    private static final String SERVICE_PROVIDERS_PATTERN = "META-INF/services/.*";
+
+    private final Set<String> reflectedClasses = new TreeSet<>();
+    private final Set<String> resources = new TreeSet<>();
+
+    private NativeImageConfig() {
+    }
+
+    /**
+     * Derive the configuration from the classes and resources of the executable jar.
+     *
+     * @param jarFilePath executable jar file path
+     * @param mainClass   binary name of the main class of the module
+     * @return native image configuration
+     * @throws IOException if the executable jar cannot be read
+     */
+    public static NativeImageConfig create(Path jarFilePath, String mainClass) throws IOException {
+        NativeImageConfig config = new NativeImageConfig();
+        config.reflectedClasses.add(mainClass);
+        try (ZipFile jarFile = new ZipFile(jarFilePath.toFile())) {
+            Enumeration<? extends ZipEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                if (name.endsWith(CLASS_FILE_SUFFIX)) {
+                    String className = name.substring(0, name.length() - CLASS_FILE_SUFFIX.length()).replace('/', '.');
+                    if (isLoadedByName(className.substring(className.lastIndexOf('.') + 1))) {
+                        config.reflectedClasses.add(className);
+                    }
+                } else if (!isJarMetadata(name)) {
+                    config.resources.add(name);
+                }
+            }
+        }
+        return config;
+    }
+
+    public List<String> getReflectedClasses() {
+        return new ArrayList<>(this.reflectedClasses);
+    }
+
+    public List<String> getResources() {
+        return new ArrayList<>(this.resources);
+    }
+
+    /**
+     * Get the content of the reflection configuration file.
+     *
+     * @return reflect-config.json content
+     * @throws IOException if the configuration cannot be serialized
+     */
+    public byte[] toReflectConfig() throws IOException {
+        ArrayNode reflectConfig = MAPPER.createArrayNode();
+        for (String className : this.reflectedClasses) {
+            ObjectNode classNode = reflectConfig.addObject();
+            classNode.put("name", className);
+            classNode.put("allDeclaredConstructors", true);
+            classNode.put("allDeclaredMethods", true);
+            classNode.put("allDeclaredFields", true);
+        }
+        return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(reflectConfig);
+    }
+
+    /**
+     * Get the content of the resource configuration file.
+     *
+     * @return resource-config.json content
+     * @throws IOException if the configuration cannot be serialized
+     */
+    public byte[] toResourceConfig() throws IOException {
+        ObjectNode resourceConfig = MAPPER.createObjectNode();
+        ArrayNode includes = resourceConfig.putObject("resources").putArray("includes");
+        includes.addObject().put("pattern", SERVICE_PROVIDERS_PATTERN);
+        for (String resource : this.resources) {
+            includes.addObject().put("pattern", Pattern.quote(resource));
+        }
+        return MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(resourceConfig);
+    }
+
+    private static boolean isLoadedByName(String simpleName) {
+        return MODULE_INIT_CLASS_NAME.equals(simpleName) || CONFIGURATION_CLASS_NAME.equals(simpleName) ||
+                simpleName.startsWith(VALUE_CLASS_PREFIX);
+    }
+
+    private static boolean isJarMetadata(String name) {
+        String upperCaseName = name.toUpperCase(Locale.ROOT);
+        // service provider files are included for all jars by a pattern
+        return upperCaseName.equals("META-INF/MANIFEST.MF") || upperCaseName.startsWith("META-INF/SERVICES/") ||
+                upperCaseName.endsWith(".SF") || upperCaseName.endsWith(".RSA") || upperCaseName.endsWith(".DSA") ||
+                upperCaseName.startsWith("META-INF/MAVEN/");
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.utils;
+
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntConsumer;
+
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.getErrorMessage;
+import static org.ballerinax.docker.generator.utils.DockerGenUtils.printDebug;
+
+/**
+ * Runs file staging tasks on a bounded executor.
+ *
+ * Virtual threads are used when the runtime supports them, a fixed thread pool otherwise. The number of tasks
+ * running at once never exceeds the configured concurrency. Stagers running side by side, such as the images of a
+ * batch, can share permits to bound the tasks running across all of them. The first failing task cancels the remaining
+ * tasks.
+ */
+public class ParallelStager {
+
+    private final int concurrency;
+    private final Semaphore sharedPermits;
+
+    public ParallelStager(int concurrency) {
+        this(concurrency, null);
+    }
+
+    /**
+     * Create a stager whose tasks also hold one of the given shared permits while they run.
+     *
+     * @param concurrency   maximum number of tasks of this stager running at once
+     * @param sharedPermits permits shared with other stagers, null if the stager is not shared
+     */
+    public ParallelStager(int concurrency, Semaphore sharedPermits) {
+        this.concurrency = concurrency;
+        this.sharedPermits = sharedPermits;
+    }
+
+    /**
+     * Run the given staging tasks and wait for them to complete.
+     *
+     * @param tasks    staging tasks
+     * @param progress callback invoked on the calling thread with the number of completed tasks
+     * @throws DockerGenException the error of the first failing task
+     */
+    public void stage(List<StagingTask> tasks, IntConsumer progress) throws DockerGenException {
+        if (this.concurrency <= 1 || tasks.size() <= 1) {
+            int completed = 0;
+            try {
+                for (StagingTask task : tasks) {
+                    runShared(task);
+                    progress.accept(++completed);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DockerGenException("interrupted while staging docker artifacts");
+            }
+            return;
+        }
+
+        ExecutorService executor = createExecutor(Math.min(this.concurrency, tasks.size()));
+        Semaphore permits = new Semaphore(this.concurrency);
+        CompletionService<Void> completionService = new ExecutorCompletionService<>(executor);
+        try {
+            for (StagingTask task : tasks) {
+                completionService.submit(() -> {
+                    permits.acquire();
+                    try {
+                        runShared(task);
+                        return null;
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+            for (int completed = 1; completed <= tasks.size(); completed++) {
+                completionService.take().get();
+                progress.accept(completed);
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DockerGenException) {
+                throw (DockerGenException) cause;
+            }
+            throw new DockerGenException("error while staging docker artifacts: " + getErrorMessage(cause), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DockerGenException("interrupted while staging docker artifacts");
+        } finally {
+            // cancels the tasks which are still running when a task failed
+            executor.shutdownNow();
+        }
+    }
+
+    private void runShared(StagingTask task) throws DockerGenException, InterruptedException {
+        if (null == this.sharedPermits) {
+            task.stage();
+            return;
+        }
+        this.sharedPermits.acquire();
+        try {
+            task.stage();
+        } finally {
+            this.sharedPermits.release();
+        }
+    }
+
+    private static ExecutorService createExecutor(int poolSize) {
+        try {
+            Method virtualThreadExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtualThreadExecutor.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            printDebug("virtual threads are not available, staging files with " + poolSize + " threads.");
+            return Executors.newFixedThreadPool(poolSize, runnable -> {
+                Thread thread = new Thread(runnable, "docker-artifact-stager");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * A file staging task.
+     */
+    @FunctionalInterface
+    public interface StagingTask {
+        void stage() throws DockerGenException;
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Minimal ustar archive writer producing reproducible archives.
+ *
+ * Every entry is written with a fixed modification time and root ownership, unless another owner is set for a
+ * directory, so that the same input files always produce the same archive bytes. File modes are normalised to 0644,
+ * or to 0755 when the source is executable, so that they do not depend on the umask or the checkout of the host.
+ * Parent directory entries are added automatically.
+ */
+public class TarArchiveWriter implements Closeable {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int NAME_LENGTH = 100;
+    private static final int PREFIX_LENGTH = 155;
+    private static final int FILE_MODE = 0644;
+    private static final int DIRECTORY_MODE = 0755;
+    private static final int EXECUTABLE_FILE_MODE = 0755;
+    private static final long MODIFIED_TIME = 0L;
+    // the largest size which fits the 11 octal digits of the size field, larger sizes are written as a pax record
+    private static final long MAX_OCTAL_SIZE = 077777777777L;
+    private static final byte FILE_TYPE = '0';
+    private static final byte DIRECTORY_TYPE = '5';
+    private static final byte PAX_HEADER_TYPE = 'x';
+
+    private final OutputStream out;
+    private final Set<String> directories = new HashSet<>();
+    private final Map<String, int[]> directoryOwners = new HashMap<>();
+    private long bytesWritten;
+
+    public TarArchiveWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Set the numeric owner of a directory entry, which is root by default. Only the entry of the directory itself is
+     * affected, the entries below it stay owned by root.
+     *
+     * @param name directory path inside the archive
+     * @param uid  user id of the owner
+     * @param gid  group id of the owner
+     */
+    public void setDirectoryOwner(String name, int uid, int gid) {
+        this.directoryOwners.put(normalize(name), new int[]{uid, gid});
+    }
+
+    /**
+     * Add a directory entry along with its parent directories.
+     *
+     * @param name directory path inside the archive
+     * @throws IOException if the entry cannot be written
+     */
+    public void addDirectory(String name) throws IOException {
+        String entryName = normalize(name);
+        if (entryName.isEmpty() || this.directories.contains(entryName)) {
+            return;
+        }
+        addParentDirectories(entryName);
+        this.directories.add(entryName);
+        int[] owner = this.directoryOwners.get(entryName);
+        writeHeader(entryName + "/", 0, DIRECTORY_MODE, DIRECTORY_TYPE, owner);
+    }
+
+    /**
+     * Add a regular file entry streamed from the file system.
+     *
+     * @param name   file path inside the archive
+     * @param source file to read the content from
+     * @throws IOException if the entry cannot be written
+     */
+    public void addFile(String name, Path source) throws IOException {
+        String entryName = normalize(name);
+        addParentDirectories(entryName);
+        long size = Files.size(source);
+        writeHeader(entryName, size, getFileMode(source), FILE_TYPE);
+        try (InputStream in = Files.newInputStream(source)) {
+            long copied = in.transferTo(this.out);
+            if (copied != size) {
+                throw new IOException("file '" + source + "' changed while it was being archived");
+            }
+        }
+        this.bytesWritten += size;
+        pad(size);
+    }
+
+    /**
+     * Add a regular file entry with the given content.
+     *
+     * @param name    file path inside the archive
+     * @param content file content
+     * @throws IOException if the entry cannot be written
+     */
+    public void addFile(String name, byte[] content) throws IOException {
+        String entryName = normalize(name);
+        addParentDirectories(entryName);
+        writeHeader(entryName, content.length, FILE_MODE, FILE_TYPE);
+        write(content);
+        pad(content.length);
+    }
+
+    /**
+     * Add a directory and all of its content under the given archive path.
+     *
+     * @param name   directory path inside the archive
+     * @param source directory to read the content from
+     * @throws IOException if an entry cannot be written
+     */
+    public void addDirectoryTree(String name, Path source) throws IOException {
+        addDirectory(name);
+        Path[] children;
+        try (Stream<Path> stream = Files.list(source)) {
+            children = stream.sorted().toArray(Path[]::new);
+        }
+        for (Path child : children) {
+            String childName = normalize(name) + "/" + child.getFileName();
+            if (Files.isDirectory(child)) {
+                addDirectoryTree(childName, child);
+            } else {
+                addFile(childName, child);
+            }
+        }
+    }
+
+    /**
+     * Get the number of bytes written to the underlying stream so far.
+     *
+     * @return number of bytes written
+     */
+    public long getBytesWritten() {
+        return this.bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        write(new byte[BLOCK_SIZE * 2]);
+        this.out.close();
+    }
+
+    private void addParentDirectories(String entryName) throws IOException {
+        int index = entryName.lastIndexOf('/');
+        if (index > 0) {
+            addDirectory(entryName.substring(0, index));
+        }
+    }
+
+    private void writeHeader(String entryName, long size, int mode, byte type) throws IOException {
+        writeHeader(entryName, size, mode, type, null);
+    }
+
+    private void writeHeader(String entryName, long size, int mode, byte type, int[] owner) throws IOException {
+        byte[] nameBytes = entryName.getBytes(StandardCharsets.UTF_8);
+        String name = entryName;
+        String prefix = "";
+        StringBuilder paxRecords = new StringBuilder();
+        if (nameBytes.length > NAME_LENGTH) {
+            int split = findPrefixSplit(entryName);
+            if (split < 0) {
+                paxRecords.append(paxRecord("path", entryName));
+                name = entryName.substring(entryName.lastIndexOf('/', entryName.length() - 2) + 1);
+                name = name.length() > NAME_LENGTH ? name.substring(0, NAME_LENGTH) : name;
+            } else {
+                prefix = entryName.substring(0, split);
+                name = entryName.substring(split + 1);
+            }
+        }
+        long headerSize = size;
+        if (size > MAX_OCTAL_SIZE) {
+            paxRecords.append(paxRecord("size", String.valueOf(size)));
+            headerSize = 0;
+        }
+        if (paxRecords.length() > 0) {
+            writePaxHeader(entryName, paxRecords.toString());
+        }
+
+        byte[] header = new byte[BLOCK_SIZE];
+        putString(header, 0, NAME_LENGTH, name);
+        putOctal(header, 100, 8, mode);
+        putOctal(header, 108, 8, null == owner ? 0 : owner[0]);
+        putOctal(header, 116, 8, null == owner ? 0 : owner[1]);
+        putOctal(header, 124, 12, headerSize);
+        putOctal(header, 136, 12, MODIFIED_TIME);
+        header[156] = type;
+        putString(header, 257, 6, "ustar");
+        putString(header, 263, 2, "00");
+        if (null == owner) {
+            // other owners are only known by their ids, which are used when the names are empty
+            putString(header, 265, 32, "root");
+            putString(header, 297, 32, "root");
+        }
+        putString(header, 345, PREFIX_LENGTH, prefix);
+        // checksum is calculated with the checksum field filled with spaces
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xFF;
+        }
+        putOctal(header, 148, 7, checksum);
+        write(header);
+    }
+
+    private void writePaxHeader(String entryName, String records) throws IOException {
+        byte[] content = records.getBytes(StandardCharsets.UTF_8);
+        writeHeader("PaxHeaders/" + Integer.toHexString(entryName.hashCode()), content.length, FILE_MODE,
+                PAX_HEADER_TYPE);
+        write(content);
+        pad(content.length);
+    }
+
+    private static String paxRecord(String key, String value) {
+        int valueLength = (key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8).length;
+        // the record length includes the length field itself
+        int length = valueLength + 2;
+        while (String.valueOf(length).length() + 1 + valueLength != length) {
+            length = String.valueOf(length).length() + 1 + valueLength;
+        }
+        return length + " " + key + "=" + value + "\n";
+    }
+
+    /**
+     * Get the mode the entry of a file is written with.
+     *
+     * @param source file to archive
+     * @return 0755 if the file is executable by anyone, 0644 otherwise
+     * @throws IOException if the permissions of the file cannot be read
+     */
+    public static int getFileMode(Path source) throws IOException {
+        PosixFileAttributeView attributeView = Files.getFileAttributeView(source, PosixFileAttributeView.class);
+        if (null == attributeView) {
+            return FILE_MODE;
+        }
+        Set<PosixFilePermission> permissions = attributeView.readAttributes().permissions();
+        return permissions.contains(PosixFilePermission.OWNER_EXECUTE) ||
+                permissions.contains(PosixFilePermission.GROUP_EXECUTE) ||
+                permissions.contains(PosixFilePermission.OTHERS_EXECUTE) ? EXECUTABLE_FILE_MODE : FILE_MODE;
+    }
+
+    private int findPrefixSplit(String entryName) {
+        int index = entryName.indexOf('/');
+        while (index > 0) {
+            int prefixLength = entryName.substring(0, index).getBytes(StandardCharsets.UTF_8).length;
+            int nameLength = entryName.substring(index + 1).getBytes(StandardCharsets.UTF_8).length;
+            if (prefixLength > PREFIX_LENGTH) {
+                return -1;
+            }
+            if (nameLength <= NAME_LENGTH && nameLength > 0) {
+                return index;
+            }
+            index = entryName.indexOf('/', index + 1);
+        }
+        return -1;
+    }
+
+    private void pad(long size) throws IOException {
+        int remainder = (int) (size % BLOCK_SIZE);
+        if (remainder != 0) {
+            write(new byte[BLOCK_SIZE - remainder]);
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        this.out.write(bytes);
+        this.bytesWritten += bytes.length;
+    }
+
+    private static String normalize(String name) {
+        String normalized = name.replace('\\', '/');
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    private static void putString(byte[] header, int offset, int length, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(bytes, 0, header, offset, Math.min(bytes.length, length));
+    }
+
+    private static void putOctal(byte[] header, int offset, int length, long value) {
+        String octal = Long.toOctalString(value);
+        StringBuilder field = new StringBuilder();
+        for (int i = octal.length(); i < length - 1; i++) {
+            field.append('0');
+        }
+        field.append(octal);
+        putString(header, offset, length - 1, field.toString());
+    }
+}
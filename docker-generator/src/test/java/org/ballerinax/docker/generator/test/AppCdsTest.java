@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import org.apache.commons.io.FileUtils;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.SOURCE_DIR_PATH;
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.createDockerModel;
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.createDockerfile;
+
+/**
+ * Class data sharing archive stage tests.
+ */
+public class AppCdsTest {
+
+    private static final Path TARGET_DIR = SOURCE_DIR_PATH.resolve("target-cds");
+
+    @Test
+    public void appCdsDockerfileTest() throws DockerGenException, IOException {
+        DockerModel dockerModel = createDockerModel();
+        dockerModel.setAppCds(true);
+        String dockerfile = createDockerfile(dockerModel, TARGET_DIR.resolve("cds"));
+        Assert.assertTrue(dockerfile.startsWith("# Auto Generated Dockerfile\n" +
+                "FROM ballerina/jre11:v1 AS builder\n"));
+        Assert.assertTrue(dockerfile.contains("RUN java -XX:DumpLoadedClassList=classes.lst -cp \"hello.jar:" +
+                "jars/http.jar:jars/uuid-native-0.10.0-alpha5-SNAPSHOT.jar\" 'wso2/bal/1/$_init' & pid=$!; sleep 10;"));
+        Assert.assertTrue(dockerfile.contains("java -Xshare:dump -XX:SharedClassListFile=classes.lst " +
+                "-XX:SharedArchiveFile=app.jsa"));
+        Assert.assertTrue(dockerfile.contains("COPY --from=builder /home/ballerina/app.jsa /home/ballerina\n"));
+        Assert.assertTrue(dockerfile.contains("CMD java -Xdiag -XX:SharedArchiveFile=app.jsa -cp \"hello.jar:" +
+                "jars/http.jar:jars/uuid-native-0.10.0-alpha5-SNAPSHOT.jar\" 'wso2/bal/1/$_init'"));
+    }
+
+    @Test
+    public void appCdsDisabledTest() throws DockerGenException, IOException {
+        String dockerfile = createDockerfile(createDockerModel(), TARGET_DIR.resolve("no-cds"));
+        Assert.assertFalse(dockerfile.contains(" AS builder"));
+        Assert.assertTrue(dockerfile.contains("CMD java -Xdiag -cp \"hello.jar:jars/*\" 'wso2/bal/1/$_init'"));
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(TARGET_DIR.toFile());
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import org.apache.commons.io.FileUtils;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.utils.ArtifactManifest;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Incremental artifact generation tests.
+ */
+public class ArtifactManifestTest {
+
+    private static final Path SOURCE_DIR_PATH = Paths.get("src", "test", "resources");
+    private static final Path TARGET_DIR = SOURCE_DIR_PATH.resolve("target-manifest");
+
+    @Test
+    public void unchangedArtifactsTest() throws IOException, DockerGenException {
+        Path outputDir = TARGET_DIR.resolve("unchanged");
+        Path source = createSource(outputDir.resolveSibling("unchanged-src"), "config.toml", "port = 9090");
+        ArtifactManifest manifest = generate(outputDir, "FROM ballerina/jre11:v1", source);
+        manifest.setBuiltImage("test-image:v1");
+        manifest.save();
+
+        ArtifactManifest rebuilt = generate(outputDir, "FROM ballerina/jre11:v1", source);
+        Assert.assertFalse(rebuilt.isChanged());
+        Assert.assertTrue(rebuilt.isImageUpToDate("test-image:v1"));
+        Assert.assertFalse(rebuilt.isImageUpToDate("test-image:v2"));
+
+        // touching the source without changing the content is not a change
+        Files.setLastModifiedTime(source, FileTime.fromMillis(1000));
+        Assert.assertFalse(generate(outputDir, "FROM ballerina/jre11:v1", source).isChanged());
+    }
+
+    @Test
+    public void changedArtifactsTest() throws IOException, DockerGenException {
+        Path outputDir = TARGET_DIR.resolve("changed");
+        Path source = createSource(outputDir.resolveSibling("changed-src"), "config.toml", "port = 9090");
+        generate(outputDir, "FROM ballerina/jre11:v1", source);
+
+        ArtifactManifest dockerfileChanged = generate(outputDir, "FROM ballerina/jre11:v2", source);
+        Assert.assertTrue(dockerfileChanged.isChanged());
+        Assert.assertEquals(new String(Files.readAllBytes(outputDir.resolve("Dockerfile")), StandardCharsets.UTF_8),
+                "FROM ballerina/jre11:v2");
+
+        Files.write(source, "port = 8080".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(source, FileTime.fromMillis(2000));
+        Assert.assertTrue(generate(outputDir, "FROM ballerina/jre11:v2", source).isChanged());
+        Assert.assertEquals(new String(Files.readAllBytes(outputDir.resolve("config.toml")), StandardCharsets.UTF_8),
+                "port = 8080");
+
+        // an edited output file with the same size is generated again
+        Files.write(outputDir.resolve("Dockerfile"), "FROM ballerina/jre11:v9".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(outputDir.resolve("Dockerfile"), FileTime.fromMillis(3000));
+        Assert.assertTrue(generate(outputDir, "FROM ballerina/jre11:v2", source).isChanged());
+        Assert.assertEquals(new String(Files.readAllBytes(outputDir.resolve("Dockerfile")), StandardCharsets.UTF_8),
+                "FROM ballerina/jre11:v2");
+
+        // touching an output file without changing the content is not a change
+        Files.setLastModifiedTime(outputDir.resolve("Dockerfile"), FileTime.fromMillis(4000));
+        Assert.assertFalse(generate(outputDir, "FROM ballerina/jre11:v2", source).isChanged());
+
+        Files.delete(outputDir.resolve("config.toml"));
+        Assert.assertTrue(generate(outputDir, "FROM ballerina/jre11:v2", source).isChanged());
+        Assert.assertTrue(Files.exists(outputDir.resolve("config.toml")));
+    }
+
+    @Test
+    public void staleArtifactsTest() throws IOException, DockerGenException {
+        Path outputDir = TARGET_DIR.resolve("stale");
+        Path source = createSource(outputDir.resolveSibling("stale-src"), "config.toml", "port = 9090");
+        generate(outputDir, "FROM ballerina/jre11:v1", source);
+        Files.write(outputDir.resolve("user.txt"), "not generated".getBytes(StandardCharsets.UTF_8));
+
+        ArtifactManifest manifest = ArtifactManifest.load(outputDir);
+        manifest.writeFile("FROM ballerina/jre11:v1", outputDir.resolve("Dockerfile"));
+        manifest.removeStaleEntries();
+        Assert.assertTrue(manifest.isChanged());
+        Assert.assertFalse(Files.exists(outputDir.resolve("config.toml")));
+        // files which were not generated are left untouched
+        Assert.assertTrue(Files.exists(outputDir.resolve("user.txt")));
+    }
+
+    @Test
+    public void staleDirectoriesTest() throws IOException, DockerGenException {
+        Path outputDir = TARGET_DIR.resolve("stale-dirs");
+        Path source = createSource(outputDir.resolveSibling("stale-dirs-src"), "config.toml", "port = 9090");
+        ArtifactManifest manifest = ArtifactManifest.load(outputDir);
+        manifest.writeFile("FROM ballerina/jre11:v1", outputDir.resolve("Dockerfile"));
+        manifest.copy(source, outputDir.resolve("conf").resolve("app").resolve("config.toml"));
+        manifest.copy(source, outputDir.resolve("jars").resolve("config.toml"));
+        manifest.save();
+        Files.write(outputDir.resolve("jars").resolve("user.txt"), "not generated".getBytes(StandardCharsets.UTF_8));
+
+        manifest = ArtifactManifest.load(outputDir);
+        manifest.writeFile("FROM ballerina/jre11:v1", outputDir.resolve("Dockerfile"));
+        manifest.removeStaleEntries();
+        Assert.assertFalse(Files.exists(outputDir.resolve("conf")));
+        // directories which still hold files which were not generated are kept
+        Assert.assertFalse(Files.exists(outputDir.resolve("jars").resolve("config.toml")));
+        Assert.assertTrue(Files.exists(outputDir.resolve("jars").resolve("user.txt")));
+        Assert.assertTrue(Files.exists(outputDir.resolve("Dockerfile")));
+    }
+
+    private ArtifactManifest generate(Path outputDir, String dockerfile, Path source) throws IOException,
+            DockerGenException {
+        ArtifactManifest manifest = ArtifactManifest.load(outputDir);
+        manifest.writeFile(dockerfile, outputDir.resolve("Dockerfile"));
+        manifest.copy(source, outputDir.resolve(source.getFileName()));
+        manifest.removeStaleEntries();
+        manifest.save();
+        return manifest;
+    }
+
+    private Path createSource(Path dir, String fileName, String content) throws IOException {
+        Files.createDirectories(dir);
+        return Files.write(dir.resolve(fileName), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(TARGET_DIR.toFile());
+    }
+}
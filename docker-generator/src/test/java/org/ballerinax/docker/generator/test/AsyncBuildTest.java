@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.test;
+
+import com.github.dockerjava.api.model.BuildResponseItem;
+import org.apache.commons.io.FileUtils;
+import org.ballerinax.docker.generator.DockerArtifactHandler;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.ballerinax.docker.generator.models.ImageResult;
+import org.ballerinax.docker.generator.test.utils.DockerTestUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.EXECUTABLE_JAR_PATH;
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.SOURCE_DIR_PATH;
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.createDockerModel;
+
+/**
+ * Asynchronous docker image build tests.
+ */
+public class AsyncBuildTest {
+
+    private static final Path OUTPUT_DIR = SOURCE_DIR_PATH.resolve("target-async");
+    private static final String DOCKER_IMAGE = "anuruddhal/async-image:v1";
+    private final PrintStream out = System.out;
+
+    @Test
+    public void buildImageAsyncTest() throws IOException, DockerGenException, InterruptedException,
+            ExecutionException {
+        DockerModel dockerModel = createModel("async-image");
+        DockerArtifactHandler handler = new DockerArtifactHandler(dockerModel);
+        Files.createDirectories(OUTPUT_DIR);
+        handler.createArtifacts(out, "\t@kubernetes:Docker \t\t\t",
+                EXECUTABLE_JAR_PATH, OUTPUT_DIR);
+
+        List<BuildResponseItem> progress = new CopyOnWriteArrayList<>();
+        ImageResult image = handler.buildImageAsync(OUTPUT_DIR, progress::add, Duration.ofMinutes(5)).get();
+        Assert.assertEquals(image.getImageName(), DOCKER_IMAGE);
+        Assert.assertNotNull(image.getImageId());
+        Assert.assertFalse(progress.isEmpty());
+        Assert.assertNotNull(DockerTestUtils.getDockerImage(DOCKER_IMAGE));
+    }
+
+    @Test
+    public void invalidImageNameTest() throws IOException, InterruptedException {
+        DockerModel dockerModel = createModel("AsyncImage");
+        CompletableFuture<ImageResult> build = new DockerArtifactHandler(dockerModel)
+                .buildImageAsync(OUTPUT_DIR, null, null);
+        Assert.assertTrue(build.isCompletedExceptionally());
+        try {
+            build.get();
+            Assert.fail("Expected error not thrown");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof DockerGenException);
+            Assert.assertTrue(e.getCause().getMessage().contains("is invalid"));
+        }
+    }
+
+    @Test
+    public void buildTimeoutTest() throws IOException, DockerGenException, InterruptedException {
+        DockerModel dockerModel = createModel("timeout-image");
+        DockerArtifactHandler handler = new DockerArtifactHandler(dockerModel);
+        Path outputDir = OUTPUT_DIR.resolve("timeout");
+        Files.createDirectories(outputDir);
+        handler.createArtifacts(out, "\t@kubernetes:Docker \t\t\t",
+                EXECUTABLE_JAR_PATH, outputDir);
+        try {
+            handler.buildImageAsync(outputDir, null, Duration.ofMillis(1)).get();
+            Assert.fail("Expected error not thrown");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+            Assert.assertEquals(e.getCause().getMessage(), "docker image build timed out after 0.001 s");
+        }
+    }
+
+    private DockerModel createModel(String name) throws IOException {
+        DockerModel dockerModel = createDockerModel();
+        dockerModel.setName(name);
+        dockerModel.setRegistry("anuruddhal");
+        dockerModel.setTag("v1");
+        return dockerModel;
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(OUTPUT_DIR.toFile());
+        DockerTestUtils.deleteDockerImage(DOCKER_IMAGE);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.DockerfileModel;
+import org.ballerinax.docker.generator.utils.BuildContextReport;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Build context report tests.
+ */
+public class BuildContextReportTest {
+
+    private static final Path SOURCE_DIR_PATH = Paths.get("src", "test", "resources");
+    private static final Path HTTP_JAR = SOURCE_DIR_PATH.resolve("docker-test").resolve("http.jar");
+    private static final String UUID_JAR_NAME = "uuid-native-0.10.0-alpha5-SNAPSHOT.jar";
+    private static final Path UUID_JAR = SOURCE_DIR_PATH.resolve("docker-test").resolve(UUID_JAR_NAME);
+    private static final long CLASS_PATH_JAR_SIZE = 300;
+
+    @Test
+    public void contextReportTest() throws IOException, DockerGenException {
+        BuildContextReport report = createReport();
+        long jarSize = Files.size(HTTP_JAR) + Files.size(UUID_JAR);
+        long confSize = Files.size(SOURCE_DIR_PATH.resolve("conf").resolve("Config.toml")) +
+                Files.size(SOURCE_DIR_PATH.resolve("conf").resolve("data.txt"));
+        Assert.assertEquals(report.getAddedLayerSize(), jarSize + Files.size(HTTP_JAR) + CLASS_PATH_JAR_SIZE +
+                confSize);
+        Assert.assertEquals(report.getContextSize(), report.getAddedLayerSize() + "FROM scratch\n".length());
+
+        JsonNode json = new ObjectMapper().readTree(report.toJson());
+        Assert.assertEquals(json.path("contextSize").asLong(), report.getContextSize());
+        Assert.assertFalse(json.path("imageSize").has("base"));
+        // the dependency jars, the executable jar, the class path jar and the copied directory
+        Assert.assertEquals(json.path("layers").size(), 4);
+        Assert.assertEquals(json.path("layers").path(0).path("name").asText(), "copy-http.jar+1");
+        Assert.assertEquals(json.path("layers").path(0).path("entries").size(), 2);
+        Assert.assertEquals(json.path("layers").path(2).path("size").asLong(), CLASS_PATH_JAR_SIZE);
+        Assert.assertEquals(json.path("layers").path(3).path("name").asText(), "copy-conf");
+        Assert.assertEquals(json.path("layers").path(3).path("size").asLong(), confSize);
+        JsonNode largestEntry = json.path("entries").path(0);
+        Assert.assertEquals(largestEntry.path("size").asLong(), Files.size(HTTP_JAR));
+        Assert.assertEquals(json.path("entries").path(json.path("entries").size() - 1).path("name").asText(),
+                "Dockerfile");
+    }
+
+    @Test
+    public void builderStageTest() throws IOException, DockerGenException {
+        // a native image copies the jars into the builder stage only, the runtime stage gets the executable
+        DockerfileModel dockerfileModel = new DockerfileModel();
+        dockerfileModel.addStage("native-image", "builder")
+                .copy(null, Arrays.asList("http.jar", UUID_JAR_NAME, "jars/"))
+                .copy(null, Arrays.asList("hello.jar", "."))
+                .copy(null, Arrays.asList("native-image", "native-image/"));
+        dockerfileModel.addStage("distroless", null)
+                .copy("builder", Arrays.asList("app", "."))
+                .copy(null, Arrays.asList("conf", "/home/ballerina/conf/"));
+        Map<String, Long> generatedFiles = Collections.singletonMap("native-image", 120L);
+        BuildContextReport report = BuildContextReport.create(13, dockerfileModel, getSources(), generatedFiles);
+
+        long confSize = Files.size(SOURCE_DIR_PATH.resolve("conf").resolve("Config.toml")) +
+                Files.size(SOURCE_DIR_PATH.resolve("conf").resolve("data.txt"));
+        Assert.assertEquals(report.getAddedLayerSize(), confSize);
+        Assert.assertEquals(report.getContextSize(), 13 + 2 * Files.size(HTTP_JAR) + Files.size(UUID_JAR) + 120 +
+                confSize);
+    }
+
+    @Test
+    public void withinBudgetTest() throws DockerGenException {
+        BuildContextReport report = createReport();
+        report.setBaseImageSize(1000);
+        Assert.assertEquals(report.getImageSize(), report.getAddedLayerSize() + 1000);
+        report.checkBudgets("test-image:v1", report.getContextSize(), report.getImageSize());
+        report.checkBudgets("test-image:v1", 0, 0);
+    }
+
+    @Test(expectedExceptions = DockerGenException.class,
+            expectedExceptionsMessageRegExp = "docker build context of 'test-image:v1' is .* which exceeds the " +
+                    "budget of 1.0 KB. largest entries: hello.jar .*")
+    public void contextBudgetTest() throws DockerGenException {
+        createReport().checkBudgets("test-image:v1", 1024, 0);
+    }
+
+    @Test(expectedExceptions = DockerGenException.class,
+            expectedExceptionsMessageRegExp = "docker image 'test-image:v1' is at least .* which exceeds the " +
+                    "budget of 1.0 MB.*")
+    public void imageBudgetTest() throws DockerGenException {
+        createReport().checkBudgets("test-image:v1", 0, 1024 * 1024);
+    }
+
+    @Test(expectedExceptions = DockerGenException.class,
+            expectedExceptionsMessageRegExp = "error while copying file/folder 'missing.jar' as it does not exist")
+    public void unknownSourceTest() throws DockerGenException {
+        DockerfileModel dockerfileModel = new DockerfileModel();
+        dockerfileModel.addStage("scratch", null).copy(null, Arrays.asList("missing.jar", "."));
+        BuildContextReport.create(13, dockerfileModel, getSources(), Collections.emptyMap());
+    }
+
+    private BuildContextReport createReport() throws DockerGenException {
+        DockerfileModel dockerfileModel = new DockerfileModel();
+        dockerfileModel.addStage("scratch", null)
+                .copy(null, Arrays.asList("http.jar", UUID_JAR_NAME, "jars/"))
+                .workDir()
+                .copy(null, Arrays.asList("hello.jar", "."))
+                .copy(null, Arrays.asList("classpath.jar", "."))
+                .copy(null, Arrays.asList("conf", "/home/ballerina/conf/"))
+                .cmd("CMD java -cp classpath.jar");
+        return BuildContextReport.create("FROM scratch\n".length(), dockerfileModel, getSources(),
+                Collections.singletonMap("classpath.jar", CLASS_PATH_JAR_SIZE));
+    }
+
+    private Map<String, Path> getSources() {
+        Map<String, Path> sources = new HashMap<>();
+        sources.put("http.jar", HTTP_JAR);
+        sources.put(UUID_JAR_NAME, UUID_JAR);
+        sources.put("hello.jar", HTTP_JAR);
+        sources.put("conf", SOURCE_DIR_PATH.resolve("conf"));
+        return sources;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import org.ballerinax.docker.generator.utils.BuildContext;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streamed docker build context tests.
+ */
+public class BuildContextTest {
+
+    private static final Path SOURCE_DIR_PATH = Paths.get("src", "test", "resources");
+
+    @Test
+    public void streamBuildContextTest() throws IOException {
+        Path jarPath = SOURCE_DIR_PATH.resolve("docker-test").resolve("http.jar");
+        BuildContext buildContext = new BuildContext();
+        buildContext.addContent("Dockerfile", "FROM ballerina/jre11:v1\n");
+        buildContext.addPath("http.jar", jarPath);
+        buildContext.addPath("conf", SOURCE_DIR_PATH.resolve("conf"));
+
+        Map<String, byte[]> entries;
+        try (InputStream in = buildContext.openStream()) {
+            entries = readTar(in.readAllBytes());
+        }
+        Assert.assertNull(buildContext.getError());
+        Assert.assertEquals(new String(entries.get("Dockerfile"), StandardCharsets.UTF_8),
+                "FROM ballerina/jre11:v1\n");
+        Assert.assertEquals(entries.get("http.jar"), Files.readAllBytes(jarPath));
+        Assert.assertEquals(entries.get("conf/Config.toml"),
+                Files.readAllBytes(SOURCE_DIR_PATH.resolve("conf").resolve("Config.toml")));
+    }
+
+    @Test
+    public void missingSourceTest() throws IOException {
+        BuildContext buildContext = new BuildContext();
+        buildContext.addPath("missing.jar", SOURCE_DIR_PATH.resolve("missing.jar"));
+        try (InputStream in = buildContext.openStream()) {
+            in.readAllBytes();
+        }
+        Assert.assertNotNull(buildContext.getError());
+    }
+
+    @Test
+    public void executableFileModeTest() throws IOException {
+        Path script = Files.createTempFile("entrypoint", ".sh");
+        Path config = Files.createTempFile("Config", ".toml");
+        try {
+            Files.writeString(script, "#!/bin/sh\nexec java -jar app.jar\n");
+            try {
+                // modes are normalised, so a restrictive umask does not end up in the image
+                Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwxr-----"));
+                Files.setPosixFilePermissions(config, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException e) {
+                throw new SkipException("POSIX file permissions are not supported");
+            }
+            BuildContext buildContext = new BuildContext();
+            buildContext.addPath("bin/entrypoint.sh", script);
+            buildContext.addPath("conf/Config.toml", config);
+            buildContext.addContent("Dockerfile", "FROM ballerina/jre11:v1\n");
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            buildContext.writeTo(out);
+            Map<String, Integer> modes = readModes(out.toByteArray());
+            Assert.assertEquals(modes.get("bin/entrypoint.sh").intValue(), 0755);
+            Assert.assertEquals(modes.get("conf/Config.toml").intValue(), 0644);
+            Assert.assertEquals(modes.get("Dockerfile").intValue(), 0644);
+        } finally {
+            Files.deleteIfExists(script);
+            Files.deleteIfExists(config);
+        }
+    }
+
+    private Map<String, Integer> readModes(byte[] archive) {
+        Map<String, Integer> modes = new LinkedHashMap<>();
+        int offset = 0;
+        while (offset + 512 <= archive.length && archive[offset] != 0) {
+            String name = readString(archive, offset, 100);
+            int mode = Integer.parseInt(readString(archive, offset + 100, 8).trim(), 8);
+            long size = Long.parseLong(readString(archive, offset + 124, 12).trim(), 8);
+            String prefix = readString(archive, offset + 345, 155);
+            if (archive[offset + 156] == '0') {
+                modes.put(prefix.isEmpty() ? name : prefix + "/" + name, mode);
+            }
+            offset += 512 + (int) ((size + 511) / 512) * 512;
+        }
+        return modes;
+    }
+
+    private Map<String, byte[]> readTar(byte[] archive) {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        int offset = 0;
+        while (offset + 512 <= archive.length && archive[offset] != 0) {
+            String name = readString(archive, offset, 100);
+            long size = Long.parseLong(readString(archive, offset + 124, 12).trim(), 8);
+            String prefix = readString(archive, offset + 345, 155);
+            byte[] content = new byte[(int) size];
+            System.arraycopy(archive, offset + 512, content, 0, (int) size);
+            if (archive[offset + 156] == '0') {
+                entries.put(prefix.isEmpty() ? name : prefix + "/" + name, content);
+            }
+            offset += 512 + (int) ((size + 511) / 512) * 512;
+        }
+        return entries;
+    }
+
+    private String readString(byte[] archive, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && archive[end] != 0) {
+            end++;
+        }
+        return new String(archive, offset, end - offset, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.test;
+
+import com.github.dockerjava.api.model.BuildResponseItem;
+import com.github.dockerjava.api.model.ResponseItem;
+import org.apache.commons.io.FileUtils;
+import org.ballerinax.docker.generator.events.BuildEvent;
+import org.ballerinax.docker.generator.events.BuildEventParser;
+import org.ballerinax.docker.generator.events.BuildEventSink;
+import org.ballerinax.docker.generator.events.ConsoleBuildEventSink;
+import org.ballerinax.docker.generator.events.InMemoryBuildEventSink;
+import org.ballerinax.docker.generator.events.JsonLinesBuildEventSink;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Build event tests.
+ */
+public class BuildEventTest {
+
+    private static final Path OUTPUT_DIR = Paths.get("src", "test", "resources", "target-events");
+    private static final String IMAGE = "anuruddhal/test-image:v1";
+    private static final String[] BUILD_OUTPUT = {
+            "Step 1/3 : FROM ballerina/jre11:v1\n",
+            " ---> 0c1e1c6b5d1f\n",
+            "Step 2/3 : COPY jars/ /home/ballerina/jars/\n",
+            " ---> Using cache\n ---> 5e3f7a2c9b11\n",
+            "Step 3/3 : COPY hello.jar /home/ballerina\n",
+            " ---> 9a8b7c6d5e4f\n",
+            "Successfully built 9a8b7c6d5e4f\n",
+            "Successfully tagged anuruddhal/test-image:v1\n"
+    };
+
+    @Test
+    public void parseBuildOutputTest() {
+        InMemoryBuildEventSink sink = new InMemoryBuildEventSink();
+        parse(sink);
+
+        List<BuildEvent> startedSteps = sink.getEvents(BuildEvent.Type.STEP_STARTED);
+        Assert.assertEquals(startedSteps.size(), 3);
+        Assert.assertEquals(startedSteps.get(1).getInstruction(), "COPY jars/ /home/ballerina/jars/");
+
+        List<BuildEvent> finishedSteps = sink.getEvents(BuildEvent.Type.STEP_FINISHED);
+        Assert.assertEquals(finishedSteps.size(), 3);
+        Assert.assertFalse(finishedSteps.get(0).isCached());
+        Assert.assertTrue(finishedSteps.get(1).isCached());
+        Assert.assertFalse(finishedSteps.get(2).isCached());
+        Assert.assertEquals(finishedSteps.get(2).getStep(), 3);
+        Assert.assertEquals(finishedSteps.get(2).getTotalSteps(), 3);
+
+        List<BuildEvent> finishedBuilds = sink.getEvents(BuildEvent.Type.BUILD_FINISHED);
+        Assert.assertEquals(finishedBuilds.size(), 1);
+        Assert.assertEquals(finishedBuilds.get(0).getImageName(), IMAGE);
+        Assert.assertEquals(finishedBuilds.get(0).getTotalSteps(), 3);
+        Assert.assertEquals(finishedBuilds.get(0).getCachedSteps(), 1);
+    }
+
+    @Test
+    public void splitLinesTest() {
+        InMemoryBuildEventSink sink = new InMemoryBuildEventSink();
+        BuildEventParser parser = new BuildEventParser(IMAGE, sink);
+        // the daemon may end a response item in the middle of a line
+        String output = String.join("", BUILD_OUTPUT);
+        for (int i = 0; i < output.length(); i += 7) {
+            parse(parser, output.substring(i, Math.min(output.length(), i + 7)));
+        }
+        parser.onBuildCompleted(null);
+
+        List<BuildEvent> finishedSteps = sink.getEvents(BuildEvent.Type.STEP_FINISHED);
+        Assert.assertEquals(finishedSteps.size(), 3);
+        Assert.assertEquals(finishedSteps.get(1).getInstruction(), "COPY jars/ /home/ballerina/jars/");
+        Assert.assertTrue(finishedSteps.get(1).isCached());
+        Assert.assertFalse(finishedSteps.get(2).isCached());
+        List<BuildEvent> finishedBuilds = sink.getEvents(BuildEvent.Type.BUILD_FINISHED);
+        Assert.assertEquals(finishedBuilds.size(), 1);
+        Assert.assertEquals(finishedBuilds.get(0).getCachedSteps(), 1);
+    }
+
+    @Test
+    public void failedBuildTest() {
+        InMemoryBuildEventSink sink = new InMemoryBuildEventSink();
+        BuildEventParser parser = new BuildEventParser(IMAGE, sink);
+        for (int i = 0; i < 3; i++) {
+            parse(parser, BUILD_OUTPUT[i]);
+        }
+        parser.onBuildCompleted(new IllegalStateException());
+        parser.onBuildCompleted(new IllegalStateException("completed twice"));
+
+        Assert.assertEquals(sink.getEvents(BuildEvent.Type.STEP_FINISHED).size(), 1);
+        List<BuildEvent> failedSteps = sink.getEvents(BuildEvent.Type.STEP_FAILED);
+        Assert.assertEquals(failedSteps.size(), 1);
+        Assert.assertEquals(failedSteps.get(0).getStep(), 2);
+        Assert.assertEquals(failedSteps.get(0).getErrorMessage(), IllegalStateException.class.getName());
+        List<BuildEvent> failedBuilds = sink.getEvents(BuildEvent.Type.BUILD_FAILED);
+        Assert.assertEquals(failedBuilds.size(), 1);
+        Assert.assertEquals(failedBuilds.get(0).getTotalSteps(), 1);
+        Assert.assertEquals(failedBuilds.get(0).getErrorMessage(), IllegalStateException.class.getName());
+        Assert.assertTrue(sink.getEvents(BuildEvent.Type.BUILD_FINISHED).isEmpty());
+    }
+
+    @Test
+    public void transferEventTest() {
+        InMemoryBuildEventSink sink = new InMemoryBuildEventSink();
+        new BuildEventParser(IMAGE, sink).onProgress(new BuildResponseItem() {
+            @Override
+            public ResponseItem.ProgressDetail getProgressDetail() {
+                return new ResponseItem.ProgressDetail() {
+                    @Override
+                    public Long getCurrent() {
+                        return 512L;
+                    }
+
+                    @Override
+                    public Long getTotal() {
+                        return 2048L;
+                    }
+                };
+            }
+        });
+        List<BuildEvent> transfers = sink.getEvents(BuildEvent.Type.TRANSFER);
+        Assert.assertEquals(transfers.size(), 1);
+        Assert.assertEquals(transfers.get(0).getBytes(), 512L);
+        Assert.assertEquals(transfers.get(0).getTotalBytes(), 2048L);
+    }
+
+    @Test
+    public void consoleSinkTest() {
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        parse(new ConsoleBuildEventSink(new PrintStream(console, true, StandardCharsets.UTF_8), "\t@docker:Build"));
+        String output = console.toString(StandardCharsets.UTF_8);
+        Assert.assertTrue(output.contains("\t@docker:Build - step 2/3 COPY jars/ /home/ballerina/jars/ (cached, "));
+        Assert.assertTrue(output.contains("\t@docker:Build - built " + IMAGE + " in "));
+        Assert.assertTrue(output.contains("1/3 steps cached"));
+    }
+
+    @Test
+    public void jsonLinesSinkTest() throws IOException {
+        Files.createDirectories(OUTPUT_DIR);
+        Path eventsFile = OUTPUT_DIR.resolve("build-events.jsonl");
+        try (JsonLinesBuildEventSink sink = new JsonLinesBuildEventSink(eventsFile)) {
+            parse(sink);
+            // the events are readable before the sink is closed
+            Assert.assertEquals(Files.readAllLines(eventsFile).size(), 7);
+        }
+        List<String> lines = Files.readAllLines(eventsFile);
+        Assert.assertEquals(lines.size(), 7);
+        Assert.assertTrue(lines.get(0).contains("\"type\":\"STEP_STARTED\""));
+        Assert.assertTrue(lines.get(3).contains("\"cached\":true"));
+        Assert.assertTrue(lines.get(6).contains("\"type\":\"BUILD_FINISHED\""));
+    }
+
+    private void parse(BuildEventSink sink) {
+        BuildEventParser parser = new BuildEventParser(IMAGE, sink);
+        for (String stream : BUILD_OUTPUT) {
+            parse(parser, stream);
+        }
+        // the build output has already ended the build
+        parser.onBuildCompleted(null);
+    }
+
+    private void parse(BuildEventParser parser, String stream) {
+        parser.onProgress(new BuildResponseItem() {
+            @Override
+            public String getStream() {
+                return stream;
+            }
+        });
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(OUTPUT_DIR.toFile());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.test;
+
+import org.apache.commons.io.FileUtils;
+import org.ballerinalang.model.elements.PackageID;
+import org.ballerinax.docker.generator.DockerArtifactHandler;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.ballerinax.docker.generator.utils.BuildMetrics;
+import org.ballerinax.docker.generator.utils.BuildMetrics.Phase;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+import org.wso2.ballerinalang.compiler.util.Name;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Build metrics tests.
+ */
+public class BuildMetricsTest {
+
+    private static final Path SOURCE_DIR_PATH = Paths.get("src", "test", "resources");
+    private static final Path OUTPUT_DIR = SOURCE_DIR_PATH.resolve("target-metrics");
+
+    @Test
+    public void summaryTest() {
+        BuildMetrics metrics = new BuildMetrics();
+        metrics.record(Phase.RENDER_DOCKERFILE, 2_000_000, 0);
+        metrics.record(Phase.STAGE_DEPENDENCY_JARS, 3_000_000, 1024);
+        metrics.record(Phase.STAGE_DEPENDENCY_JARS, 4_000_000, 1024);
+
+        Assert.assertEquals(metrics.getCount(Phase.STAGE_DEPENDENCY_JARS), 2);
+        Assert.assertEquals(metrics.getMillis(Phase.STAGE_DEPENDENCY_JARS), 7);
+        Assert.assertEquals(metrics.getBytes(Phase.STAGE_DEPENDENCY_JARS), 2048);
+        List<String> summary = metrics.toSummary("\t@docker");
+        Assert.assertEquals(summary.size(), 2);
+        Assert.assertEquals(summary.get(0), "\t@docker - render Dockerfile: 2 ms");
+        Assert.assertEquals(summary.get(1), "\t@docker - stage dependency jars: 7 ms, 2 files, 2.0 KB");
+    }
+
+    @Test
+    public void createArtifactsMetricsTest() throws IOException, DockerGenException {
+        Set<Path> dependencyJars = Files.list(SOURCE_DIR_PATH.resolve("docker-test")).collect(Collectors.toSet());
+        DockerModel dockerModel = new DockerModel();
+        dockerModel.setName("metrics-image");
+        dockerModel.setJarFileName("http.jar");
+        dockerModel.setPorts(Collections.singleton(9090));
+        dockerModel.setBuildImage(false);
+        dockerModel.setBuildMetrics(true);
+        dockerModel.setPkgId(new PackageID(new Name("wso2"), new Name("bal"), new Name("1.0.0")));
+        dockerModel.setDependencyJarPaths(dependencyJars);
+        DockerArtifactHandler handler = new DockerArtifactHandler(dockerModel);
+        Path jarFilePath = SOURCE_DIR_PATH.resolve("docker-test").resolve("http.jar");
+        Files.createDirectories(OUTPUT_DIR);
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        handler.createArtifacts(new PrintStream(console, true, StandardCharsets.UTF_8), "\t@docker", jarFilePath,
+                OUTPUT_DIR);
+
+        BuildMetrics metrics = handler.getBuildMetrics();
+        Assert.assertEquals(metrics.getCount(Phase.RENDER_DOCKERFILE), 1);
+        Assert.assertEquals(metrics.getCount(Phase.CONTEXT_REPORT), 1);
+        Assert.assertEquals(metrics.getCount(Phase.STAGE_DEPENDENCY_JARS), dependencyJars.size());
+        Assert.assertEquals(metrics.getCount(Phase.STAGE_EXECUTABLE_JAR), 1);
+        Assert.assertEquals(metrics.getBytes(Phase.STAGE_EXECUTABLE_JAR), Files.size(jarFilePath));
+        Assert.assertEquals(metrics.getCount(Phase.DAEMON_BUILD), 0);
+        Assert.assertEquals(metrics.getCount(Phase.TOTAL), 1);
+        Assert.assertTrue(console.toString(StandardCharsets.UTF_8).contains("\t@docker - stage executable jar: "));
+
+        String metricsFile = Files.readString(OUTPUT_DIR.resolve("build-metrics.json"));
+        Assert.assertTrue(metricsFile.contains("\"image\" : \"metrics-image:latest\""));
+        Assert.assertTrue(metricsFile.contains("\"render_dockerfile\""));
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(OUTPUT_DIR.toFile());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.test;
+
+import org.apache.commons.io.FileUtils;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.ClassPathMode;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.SOURCE_DIR_PATH;
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.createArtifacts;
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.createDockerModel;
+
+/**
+ * Explicit class path and class path jar tests.
+ */
+public class ClassPathJarTest {
+
+    private static final Path TARGET_DIR = SOURCE_DIR_PATH.resolve("target-classpath");
+
+    @Test
+    public void explicitClassPathTest() throws DockerGenException, IOException {
+        DockerModel dockerModel = createDockerModel();
+        dockerModel.setClassPathMode(ClassPathMode.EXPLICIT);
+        Path outputDir = createArtifacts(dockerModel, TARGET_DIR.resolve("explicit"));
+        String dockerfile = new String(Files.readAllBytes(outputDir.resolve("Dockerfile")), StandardCharsets.UTF_8);
+        Assert.assertTrue(dockerfile.contains("CMD java -Xdiag -cp \"hello.jar:jars/http.jar:" +
+                "jars/uuid-native-0.10.0-alpha5-SNAPSHOT.jar\" 'wso2/bal/1/$_init'"));
+        Assert.assertFalse(Files.exists(outputDir.resolve("classpath.jar")));
+    }
+
+    @Test
+    public void classPathJarTest() throws DockerGenException, IOException {
+        DockerModel dockerModel = createDockerModel();
+        dockerModel.setClassPathMode(ClassPathMode.MANIFEST_JAR);
+        Path outputDir = createArtifacts(dockerModel, TARGET_DIR.resolve("manifest"));
+        String dockerfile = new String(Files.readAllBytes(outputDir.resolve("Dockerfile")), StandardCharsets.UTF_8);
+        Assert.assertTrue(dockerfile.contains("COPY classpath.jar /home/ballerina\n"));
+        Assert.assertTrue(dockerfile.contains("CMD java -Xdiag -cp \"classpath.jar\" 'wso2/bal/1/$_init'"));
+        try (JarFile classPathJar = new JarFile(outputDir.resolve("classpath.jar").toFile())) {
+            Assert.assertEquals(classPathJar.getManifest().getMainAttributes().getValue(Attributes.Name.CLASS_PATH),
+                    "hello.jar jars/http.jar jars/uuid-native-0.10.0-alpha5-SNAPSHOT.jar");
+            Assert.assertNull(classPathJar.getEntry("META-INF/INDEX.LIST"));
+        }
+    }
+
+    @Test
+    public void classPathIndexTest() throws DockerGenException, IOException {
+        DockerModel dockerModel = createDockerModel();
+        dockerModel.setClassPathMode(ClassPathMode.MANIFEST_JAR);
+        dockerModel.setClassPathIndex(true);
+        Path outputDir = createArtifacts(dockerModel, TARGET_DIR.resolve("index"));
+        byte[] content = Files.readAllBytes(outputDir.resolve("classpath.jar"));
+        try (JarFile classPathJar = new JarFile(outputDir.resolve("classpath.jar").toFile());
+             InputStream in = classPathJar.getInputStream(classPathJar.getEntry("META-INF/INDEX.LIST"))) {
+            String index = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            Assert.assertTrue(index.startsWith("JarIndex-Version: 1.0\n\nclasspath.jar\n\nhello.jar\n"));
+            Assert.assertTrue(index.contains("\nballerina/http/1_1_0-alpha5\n"));
+            Assert.assertTrue(index.contains("\njars/uuid-native-0.10.0-alpha5-SNAPSHOT.jar\n"));
+            Assert.assertFalse(index.contains("META-INF/MANIFEST.MF"));
+        }
+
+        // the same inputs must produce the same jar so that the image layer is reused
+        Path rebuiltDir = createArtifacts(dockerModel, TARGET_DIR.resolve("index-rebuilt"));
+        Assert.assertEquals(Files.readAllBytes(rebuiltDir.resolve("classpath.jar")), content);
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(TARGET_DIR.toFile());
+    }
+}
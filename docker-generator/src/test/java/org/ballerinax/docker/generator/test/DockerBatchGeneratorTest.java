@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import org.apache.commons.io.FileUtils;
+import org.ballerinalang.model.elements.PackageID;
+import org.ballerinax.docker.generator.DockerBatchGenerator;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.BatchImageModel;
+import org.ballerinax.docker.generator.models.BatchImageResult;
+import org.ballerinax.docker.generator.models.CopyFileModel;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+import org.wso2.ballerinalang.compiler.util.Name;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Batch image generation tests.
+ */
+public class DockerBatchGeneratorTest {
+
+    private static final Path SOURCE_DIR_PATH = Paths.get("src", "test", "resources");
+    private static final Path OUTPUT_DIR = SOURCE_DIR_PATH.resolve("target-batch");
+    private final PrintStream out = System.out;
+
+    @Test
+    public void generateArtifactsTest() throws IOException, DockerGenException {
+        List<BatchImageModel> images = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            images.add(createImage("batch-image-" + i));
+        }
+        CopyFileModel missingFile = new CopyFileModel();
+        missingFile.setSource(SOURCE_DIR_PATH.resolve("missing").resolve("Config.toml").toString());
+        missingFile.setTarget("/home/ballerina/conf/");
+        images.get(2).getDockerModel().setCopyFiles(Collections.singleton(missingFile));
+
+        List<BatchImageResult> results = new DockerBatchGenerator(4, 2).generate(out, images);
+
+        Assert.assertEquals(results.size(), images.size());
+        for (int i = 0; i < results.size(); i++) {
+            BatchImageResult result = results.get(i);
+            Assert.assertEquals(result.getImageName(), "batch-image-" + i + ":latest");
+            if (i == 2) {
+                Assert.assertFalse(result.isSuccess());
+                Assert.assertTrue(result.getErrorMessage().contains("does not exist"));
+            } else {
+                Assert.assertTrue(result.isSuccess(), String.valueOf(result.getErrorMessage()));
+                Assert.assertTrue(Files.exists(images.get(i).getOutputDir().resolve("Dockerfile")));
+                Assert.assertTrue(Files.exists(images.get(i).getOutputDir().resolve("http.jar")));
+            }
+        }
+    }
+
+    @Test
+    public void failureWithoutMessageTest() throws IOException {
+        BatchImageModel image = createImage("batch-image-npe");
+        DockerModel dockerModel = new DockerModel() {
+            @Override
+            public Set<CopyFileModel> getCopyFiles() {
+                throw new IllegalStateException();
+            }
+        };
+        dockerModel.setName(image.getDockerModel().getName());
+        dockerModel.setJarFileName("http.jar");
+        dockerModel.setBuildImage(false);
+        dockerModel.setPkgId(image.getDockerModel().getPkgId());
+        dockerModel.setDependencyJarPaths(Collections.emptySet());
+
+        List<BatchImageResult> results = new DockerBatchGenerator(1, 1).generate(out,
+                Collections.singletonList(new BatchImageModel(dockerModel, image.getJarFilePath(),
+                        image.getOutputDir())));
+
+        Assert.assertFalse(results.get(0).isSuccess());
+        Assert.assertTrue(results.get(0).getError() instanceof IllegalStateException);
+        Assert.assertEquals(results.get(0).getErrorMessage(), IllegalStateException.class.getName());
+    }
+
+    @Test
+    public void emptyBatchTest() {
+        Assert.assertTrue(new DockerBatchGenerator(1, 1).generate(out, Collections.emptyList()).isEmpty());
+    }
+
+    private BatchImageModel createImage(String name) throws IOException {
+        DockerModel dockerModel = new DockerModel();
+        dockerModel.setName(name);
+        dockerModel.setJarFileName("http.jar");
+        dockerModel.setPorts(Collections.singleton(9090));
+        dockerModel.setBuildImage(false);
+        dockerModel.setPkgId(new PackageID(new Name("wso2"), new Name("bal"), new Name("1.0.0")));
+        dockerModel.setDependencyJarPaths(Collections.emptySet());
+        Path outputDir = OUTPUT_DIR.resolve(name);
+        Files.createDirectories(outputDir);
+        return new BatchImageModel(dockerModel, SOURCE_DIR_PATH.resolve("docker-test").resolve("http.jar"),
+                outputDir);
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(OUTPUT_DIR.toFile());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.test;
+
+import com.github.dockerjava.api.DockerClient;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.ballerinax.docker.generator.utils.DockerClientRegistry;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Docker client registry tests.
+ */
+public class DockerClientRegistryTest {
+
+    @Test
+    public void sharedClientTest() {
+        DockerClient dockerClient = DockerClientRegistry.getClient(createModel("tcp://localhost:2375"));
+        Assert.assertNotNull(dockerClient);
+        Assert.assertSame(DockerClientRegistry.getClient(createModel("tcp://localhost:2375")), dockerClient);
+    }
+
+    @Test
+    public void separateClientTest() {
+        DockerClient dockerClient = DockerClientRegistry.getClient(createModel("tcp://localhost:2375"));
+        Assert.assertNotSame(DockerClientRegistry.getClient(createModel("tcp://localhost:2376")), dockerClient);
+
+        DockerModel tunedModel = createModel("tcp://localhost:2375");
+        tunedModel.setDockerMaxConnections(4);
+        Assert.assertNotSame(DockerClientRegistry.getClient(tunedModel), dockerClient);
+    }
+
+    @Test
+    public void closeAllTest() {
+        DockerClient dockerClient = DockerClientRegistry.getClient(createModel("tcp://localhost:2375"));
+        DockerClientRegistry.closeAll();
+        Assert.assertNotSame(DockerClientRegistry.getClient(createModel("tcp://localhost:2375")), dockerClient);
+    }
+
+    private DockerModel createModel(String dockerHost) {
+        DockerModel dockerModel = new DockerModel();
+        dockerModel.setName("registry-test");
+        dockerModel.setDockerHost(dockerHost);
+        return dockerModel;
+    }
+
+    @AfterMethod
+    public void cleanUp() {
+        DockerClientRegistry.closeAll();
+    }
+}
@@ -89,6 +89,45 @@ public class DockerGeneratorTests {
         Assert.assertEquals(DockerGenUtils.cleanErrorMessage("org.apache.http.client.ClientProtocolException:"), "");
     }
 
+    @Test
+    public void copyFileOrDirectoryTest() throws DockerGenException, IOException {
+        Path stagingDir = SOURCE_DIR_PATH.resolve("target").resolve("staging");
+        Files.createDirectories(stagingDir);
+        Path jarFile = SOURCE_DIR_PATH.resolve("docker-test").resolve("http.jar");
+        DockerGenUtils.copyFileOrDirectory(jarFile, stagingDir);
+        Path stagedJar = stagingDir.resolve("http.jar");
+        Assert.assertEquals(Files.size(stagedJar), Files.size(jarFile));
+        Assert.assertEquals(Files.getLastModifiedTime(stagedJar), Files.getLastModifiedTime(jarFile));
+        // staging again over an existing file must not fail
+        DockerGenUtils.copyFileOrDirectory(jarFile, stagedJar);
+        Assert.assertEquals(Files.size(stagedJar), Files.size(jarFile));
+
+        DockerGenUtils.copyFileOrDirectory(SOURCE_DIR_PATH.resolve("conf"), stagingDir.resolve("conf"));
+        Assert.assertTrue(Files.exists(stagingDir.resolve("conf").resolve("Config.toml")));
+        Assert.assertTrue(Files.exists(stagingDir.resolve("conf").resolve("data.txt")));
+    }
+
+    @Test
+    public void stagingIsolatesWritableSourcesTest() throws DockerGenException, IOException {
+        Path workDir = Files.createTempDirectory("docker-staging");
+        try {
+            Path source = Files.writeString(workDir.resolve("Config.toml"), "port = 9090\n");
+            Path staged = workDir.resolve("staged").resolve("Config.toml");
+            DockerGenUtils.copyFileOrDirectory(source, staged);
+            Assert.assertFalse(Files.isSameFile(source, staged));
+            Files.writeString(staged, "port = 8080\n");
+            Assert.assertEquals(Files.readString(source), "port = 9090\n");
+
+            // read-only sources may be shared with the staged file
+            Path jar = Files.write(workDir.resolve("lib.jar"), new byte[]{1, 2, 3});
+            Path stagedJar = workDir.resolve("staged").resolve("lib.jar");
+            DockerGenUtils.copyFileOrDirectory(jar, stagedJar, true);
+            Assert.assertEquals(Files.readAllBytes(stagedJar), new byte[]{1, 2, 3});
+        } finally {
+            FileUtils.deleteDirectory(workDir.toFile());
+        }
+    }
+
     @Test
     public void buildDockerImageTest() throws DockerGenException, IOException {
         DockerModel dockerModel = new DockerModel();
@@ -138,8 +177,9 @@ public class DockerGeneratorTests {
     public void validateDockerImage() {
         Assert.assertNotNull(DockerTestUtils.getDockerImage(DOCKER_IMAGE));
         Assert.assertEquals(DockerTestUtils.getExposedPorts(DOCKER_IMAGE).size(), 1);
+        // base image variables, BALCONFIGFILE and JAVA_TOOL_OPTIONS of the default JVM profile
         Assert.assertEquals(Objects.requireNonNull(DockerTestUtils.getDockerImage(DOCKER_IMAGE).getConfig()
-                .getEnv()).length, 4);
+                .getEnv()).length, 5);
         Assert.assertEquals(DockerTestUtils.getCommand(DOCKER_IMAGE).get(2), "java -Xdiag -cp \"hello.jar:jars/*\" " +
                 "'wso2/bal/1/$_init'");
     }
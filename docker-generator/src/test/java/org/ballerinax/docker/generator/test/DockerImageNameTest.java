@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.utils.DockerImageName;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Docker image name parsing tests.
+ */
+public class DockerImageNameTest {
+
+    @Test
+    public void parseNameTest() throws DockerGenException {
+        DockerImageName imageName = DockerImageName.parseName("localhost:5000/ballerina/hello_world-svc:1.0.0");
+        Assert.assertEquals(imageName.getRegistry(), "localhost:5000");
+        Assert.assertEquals(imageName.getRepository(), "ballerina/hello_world-svc");
+        Assert.assertEquals(imageName.getTag(), "1.0.0");
+
+        DockerImageName latest = DockerImageName.parseName("hello");
+        Assert.assertFalse(latest.hasRegistry());
+        Assert.assertEquals(latest.getTag(), "latest");
+
+        String digest = "sha256:" + "a".repeat(64);
+        DockerImageName digested = DockerImageName.parseName("hello@" + digest);
+        Assert.assertEquals(digested.getDigest(), digest);
+        Assert.assertNull(digested.getTag());
+    }
+
+    @Test
+    public void parseCacheTest() throws DockerGenException {
+        DockerImageName imageName = DockerImageName.parseName("ballerina/cached:v1");
+        Assert.assertSame(DockerImageName.parseName("ballerina/cached:v1"), imageName);
+    }
+
+    @Test
+    public void invalidNameTest() {
+        try {
+            DockerImageName.parseName("dockerName:latest");
+            Assert.fail("invalid image name was accepted");
+        } catch (DockerGenException e) {
+            Assert.assertEquals(e.getMessage(), "given docker name 'dockerName:latest' is invalid: image name " +
+                    "'dockerName' is invalid");
+        }
+        assertInvalid("hello:");
+        assertInvalid("hello__-world");
+    }
+
+    @Test
+    public void hostileNameTest() {
+        // nested quantifiers used to backtrack exponentially on long names which fail to match
+        long startTime = System.nanoTime();
+        assertInvalid("a".repeat(10000) + "!");
+        assertInvalid("registry.io/" + "a-".repeat(5000) + ":" + "b".repeat(200));
+        Assert.assertTrue(System.nanoTime() - startTime < 5_000_000_000L, "parsing hostile names took too long");
+    }
+
+    private void assertInvalid(String imageName) {
+        try {
+            DockerImageName.parseName(imageName);
+            Assert.fail("invalid image name '" + imageName + "' was accepted");
+        } catch (DockerGenException e) {
+            Assert.assertTrue(e.getMessage().contains("is invalid"));
+        }
+    }
+}
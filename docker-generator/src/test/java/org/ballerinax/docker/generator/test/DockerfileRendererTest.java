@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.test;
+
+import org.ballerinax.docker.generator.models.DockerfileModel;
+import org.ballerinax.docker.generator.utils.DockerfileRenderer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Multi-stage Dockerfile model rendering tests.
+ */
+public class DockerfileRendererTest {
+
+    @Test
+    public void renderLinuxDockerfileTest() {
+        String dockerfile = new DockerfileRenderer(false).render(createDockerfileModel());
+        Assert.assertEquals(dockerfile, "# Auto Generated Dockerfile\n" +
+                "FROM eclipse-temurin:11-jdk AS builder\n" +
+                "\n" +
+                "WORKDIR /home/ballerina\n" +
+                "COPY a.jar b.jar /home/ballerina/jars/\n" +
+                "RUN echo one \\\n" +
+                "    && echo two\n" +
+                "\n" +
+                "FROM ballerina/jre11:v1\n" +
+                "\n" +
+                "LABEL maintainer=\"dev@ballerina.io\"\n" +
+                "COPY --from=builder /home/ballerina/out.txt /home/ballerina\n" +
+                "COPY Config.toml /home/ballerina/conf/\n" +
+                "ENV JAVA_OPTS=\"-Xms64m -Xmx128m\"\n" +
+                "EXPOSE 9090 9091\n" +
+                "USER ballerina\n" +
+                "CMD java -Xdiag -cp \"hello.jar:jars/*\" 'wso2/bal/1/$_init'\n");
+    }
+
+    @Test
+    public void renderWindowsDockerfileTest() {
+        String dockerfile = new DockerfileRenderer(true).render(createDockerfileModel());
+        String lineSeparator = System.lineSeparator();
+        Assert.assertTrue(dockerfile.contains("WORKDIR C:/ballerina/home" + lineSeparator));
+        Assert.assertTrue(dockerfile.contains("COPY a.jar b.jar C:/ballerina/home/jars/" + lineSeparator));
+        Assert.assertTrue(dockerfile.contains("COPY --from=builder C:/ballerina/home/out.txt C:/ballerina/home" +
+                lineSeparator));
+        // absolute paths are kept as they are
+        Assert.assertTrue(dockerfile.contains("COPY Config.toml /home/ballerina/conf/" + lineSeparator));
+    }
+
+    @Test
+    public void renderToFileTest() throws IOException {
+        DockerfileRenderer renderer = new DockerfileRenderer(false);
+        Path dockerfilePath = Files.createTempDirectory("dockerfile-renderer").resolve("docker").resolve("Dockerfile");
+        try {
+            renderer.render(createDockerfileModel(), dockerfilePath);
+            Assert.assertEquals(Files.readString(dockerfilePath), renderer.render(createDockerfileModel()));
+        } finally {
+            Files.deleteIfExists(dockerfilePath);
+            Files.deleteIfExists(dockerfilePath.getParent());
+            Files.deleteIfExists(dockerfilePath.getParent().getParent());
+        }
+    }
+
+    @Test
+    public void renderManyJarsTest() {
+        List<String> copyPaths = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            copyPaths.add("dependency-" + i + ".jar");
+        }
+        copyPaths.add("jars/");
+        DockerfileModel dockerfileModel = new DockerfileModel();
+        dockerfileModel.addStage("ballerina/jre11:v1", null).copy(null, copyPaths);
+        String dockerfile = new DockerfileRenderer(false).render(dockerfileModel);
+        Assert.assertTrue(dockerfile.startsWith("# Auto Generated Dockerfile\nFROM ballerina/jre11:v1\n\n" +
+                "COPY dependency-0.jar dependency-1.jar "));
+        Assert.assertTrue(dockerfile.endsWith(" dependency-4999.jar /home/ballerina/jars/\n"));
+    }
+
+    private DockerfileModel createDockerfileModel() {
+        DockerfileModel dockerfileModel = new DockerfileModel();
+        dockerfileModel.addStage("eclipse-temurin:11-jdk", "builder")
+                .workDir()
+                .copy(null, Arrays.asList("a.jar", "b.jar", "jars/"))
+                .run("echo one", "echo two");
+        dockerfileModel.addStage("ballerina/jre11:v1", null)
+                .label("maintainer", "dev@ballerina.io")
+                .copy("builder", Arrays.asList("out.txt", "."))
+                .copy(null, Arrays.asList("Config.toml", "/home/ballerina/conf/"))
+                .env("JAVA_OPTS", "-Xms64m -Xmx128m")
+                .expose(Arrays.asList("9090", "9091"))
+                .user("ballerina")
+                .cmd("CMD java -Xdiag -cp \"hello.jar:jars/*\" 'wso2/bal/1/$_init'");
+        return dockerfileModel;
+    }
+}
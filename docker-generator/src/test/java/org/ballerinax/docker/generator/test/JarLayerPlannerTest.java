@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import org.ballerinalang.model.elements.PackageID;
+import org.ballerinax.docker.generator.models.DependencyJars;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.ballerinax.docker.generator.models.JarLayerModel;
+import org.ballerinax.docker.generator.models.JarLayerModel.LayerGroup;
+import org.ballerinax.docker.generator.utils.JarLayerPlanner;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.ballerinalang.compiler.util.Name;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Dependency jar layer planner tests.
+ */
+public class JarLayerPlannerTest {
+
+    private static final PackageID PACKAGE_ID = new PackageID(new Name("wso2"), new Name("hello"),
+            new Name("0.1.0"));
+
+    @Test
+    public void layerOrderTest() {
+        Set<Path> jars = Set.of(Paths.get("libs", "wso2-hello-0.1.0.jar"),
+                Paths.get("libs", "ballerina-http-2.9.0.jar"),
+                Paths.get("libs", "hello.jar"),
+                Paths.get("libs", "hello-observability-symbols.jar"),
+                Paths.get("libs", "netty-buffer-4.1.94.Final.jar"),
+                Paths.get("libs", "ballerina-rt-2201.8.0.jar"));
+        List<JarLayerModel> layers = new JarLayerPlanner(8).plan(jars, "hello.jar", PACKAGE_ID);
+        List<LayerGroup> groups = new ArrayList<>();
+        for (JarLayerModel layer : layers) {
+            groups.addAll(Collections.nCopies(layer.getJars().size(), layer.getGroup()));
+        }
+        Assert.assertEquals(groups, List.of(LayerGroup.BALLERINA_RUNTIME, LayerGroup.BALLERINA_RUNTIME,
+                LayerGroup.THIRD_PARTY, LayerGroup.PROJECT, LayerGroup.APPLICATION, LayerGroup.APPLICATION));
+        Assert.assertEquals(layers.get(layers.size() - 3).getJars(),
+                List.of(Paths.get("libs", "wso2-hello-0.1.0.jar")));
+    }
+
+    @Test
+    public void boundedLayerCountTest() {
+        List<Path> jars = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            jars.add(Paths.get("driver-" + i + ".jar"));
+        }
+        List<JarLayerModel> layers = new JarLayerPlanner(4).plan(jars, "hello.jar", null);
+        Assert.assertEquals(layers.size(), 4);
+        Assert.assertEquals(layers.stream().mapToInt(layer -> layer.getJars().size()).sum(), 250);
+        layers.forEach(layer -> Assert.assertEquals(layer.getGroup(), LayerGroup.THIRD_PARTY));
+    }
+
+    @Test
+    public void stableLayerAssignmentTest() {
+        List<Path> jars = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            jars.add(Paths.get("driver-" + i + ".jar"));
+        }
+        JarLayerPlanner planner = new JarLayerPlanner(4);
+        List<JarLayerModel> layers = planner.plan(jars, "hello.jar", null);
+        jars.add(Paths.get("driver-0a.jar"));
+        List<JarLayerModel> updatedLayers = planner.plan(jars, "hello.jar", null);
+        Assert.assertEquals(updatedLayers.size(), layers.size());
+
+        // only the layer receiving the new jar changes
+        int changedLayers = 0;
+        for (int i = 0; i < layers.size(); i++) {
+            if (!layers.get(i).getJars().equals(updatedLayers.get(i).getJars())) {
+                changedLayers++;
+                Assert.assertTrue(updatedLayers.get(i).getJars().contains(Paths.get("driver-0a.jar")));
+            }
+        }
+        Assert.assertEquals(changedLayers, 1);
+    }
+
+    @Test
+    public void projectPrefixTest() {
+        Assert.assertEquals(JarLayerPlanner.classify("wso2-hello-0.1.0.jar", "hello.jar", "wso2-hello"),
+                LayerGroup.PROJECT);
+        Assert.assertEquals(JarLayerPlanner.classify("wso2-hello.utils-0.1.0.jar", "hello.jar", "wso2-hello"),
+                LayerGroup.PROJECT);
+        Assert.assertEquals(JarLayerPlanner.classify("wso2-helloworld-1.0.0.jar", "hello.jar", "wso2-hello"),
+                LayerGroup.THIRD_PARTY);
+    }
+
+    @Test
+    public void dependencySnapshotTest() {
+        DockerModel dockerModel = new DockerModel();
+        dockerModel.setJarFileName("hello.jar");
+        dockerModel.setPkgId(PACKAGE_ID);
+        dockerModel.setDependencyJarPaths(Set.of(Paths.get("libs", "netty-buffer-4.1.94.Final.jar"),
+                Paths.get("libs", "ballerina-rt-2201.8.0.jar"),
+                Paths.get("libs", "wso2-hello-0.1.0.jar")));
+        DependencyJars dependencyJars = dockerModel.getDependencyJars();
+        Assert.assertSame(dockerModel.getDependencyJars(), dependencyJars);
+        Assert.assertEquals(dependencyJars.getJars(), List.of(Paths.get("libs", "ballerina-rt-2201.8.0.jar"),
+                Paths.get("libs", "netty-buffer-4.1.94.Final.jar"), Paths.get("libs", "wso2-hello-0.1.0.jar")));
+        Assert.assertEquals(new ArrayList<>(dockerModel.getDependencyJarPaths()), dependencyJars.getJars());
+        Assert.assertEquals(dependencyJars.getGroup(0), LayerGroup.BALLERINA_RUNTIME);
+        Assert.assertEquals(dependencyJars.getGroup(1), LayerGroup.THIRD_PARTY);
+        Assert.assertEquals(dependencyJars.getGroup(2), LayerGroup.PROJECT);
+
+        // the snapshot is taken again only when the dependencies or their classification change
+        dockerModel.addDependencyJarPaths(Set.of(Paths.get("libs", "wso2-hello-0.1.0.jar")));
+        Assert.assertSame(dockerModel.getDependencyJars(), dependencyJars);
+        dockerModel.addDependencyJarPaths(Set.of(Paths.get("libs", "hello-observability-symbols.jar")));
+        DependencyJars updatedJars = dockerModel.getDependencyJars();
+        Assert.assertNotSame(updatedJars, dependencyJars);
+        Assert.assertEquals(updatedJars.getJars(LayerGroup.APPLICATION),
+                List.of(Paths.get("libs", "hello-observability-symbols.jar")));
+        dockerModel.setPkgId(null);
+        Assert.assertEquals(dockerModel.getDependencyJars().getJars(LayerGroup.THIRD_PARTY).size(), 2);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinax.docker.generator.test;
+
+import org.apache.commons.io.FileUtils;
+import org.ballerinax.docker.generator.utils.JarPruner;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Unused dependency jar pruning tests.
+ */
+public class JarPrunerTest {
+
+    private static final Path TARGET_DIR = Paths.get("src", "test", "resources", "target-prune");
+    private static final Path CLASSES_DIR = TARGET_DIR.resolve("classes");
+
+    private Path appJar;
+    private Path usedJar;
+    private Path unusedJar;
+    private Path pluginJar;
+    private Path reflectJar;
+    private Path keptJar;
+    private Path resourceJar;
+
+    @BeforeClass
+    public void createJars() throws IOException {
+        Path sourceDir = TARGET_DIR.resolve("sources");
+        writeSource(sourceDir, "app/Main.java", "package app; public class Main { public static void main(" +
+                "String[] args) throws Exception { new lib.Used(); java.util.ServiceLoader.load(spi.Plugin.class); " +
+                "Class.forName(\"reflect.Target\"); } }");
+        writeSource(sourceDir, "lib/Used.java", "package lib; public class Used { lib.Helper helper; }");
+        writeSource(sourceDir, "lib/Helper.java", "package lib; public class Helper { }");
+        writeSource(sourceDir, "spi/Plugin.java", "package spi; public interface Plugin { }");
+        writeSource(sourceDir, "impl/PluginImpl.java", "package impl; public class PluginImpl implements " +
+                "spi.Plugin { }");
+        writeSource(sourceDir, "unused/Unused.java", "package unused; public class Unused { }");
+        writeSource(sourceDir, "reflect/Target.java", "package reflect; public class Target { }");
+        writeSource(sourceDir, "kept/Kept.java", "package kept; public class Kept { }");
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> arguments;
+        try (Stream<Path> sources = Files.walk(sourceDir)) {
+            arguments = sources.filter(Files::isRegularFile).map(Path::toString).collect(Collectors.toList());
+        }
+        arguments.addAll(0, Arrays.asList("-d", CLASSES_DIR.toString()));
+        Assert.assertEquals(compiler.run(null, null, null, arguments.toArray(new String[0])), 0);
+
+        this.appJar = createJar("app.jar", Collections.emptyMap(), "app/Main");
+        this.usedJar = createJar("used.jar", Collections.emptyMap(), "lib/Used", "lib/Helper", "spi/Plugin");
+        this.unusedJar = createJar("unused.jar", Collections.emptyMap(), "unused/Unused");
+        this.pluginJar = createJar("plugin.jar", Collections.singletonMap("META-INF/services/spi.Plugin",
+                "# comment\nimpl.PluginImpl\n"), "impl/PluginImpl");
+        this.reflectJar = createJar("reflect.jar", Collections.emptyMap(), "reflect/Target");
+        this.keptJar = createJar("kept-1.0.jar", Collections.emptyMap(), "kept/Kept");
+        this.resourceJar = createJar("messages.jar", Collections.singletonMap("i18n/messages_en.properties",
+                "greeting=hello\n"));
+    }
+
+    @Test
+    public void findUnusedJarsTest() throws IOException {
+        List<Path> unusedJars = new JarPruner(Collections.singleton("kept-*.jar")).findUnusedJars(this.appJar,
+                Collections.emptyList(), Arrays.asList(this.usedJar, this.unusedJar, this.pluginJar,
+                        this.reflectJar, this.keptJar));
+        Assert.assertEquals(unusedJars, Collections.singletonList(this.unusedJar));
+    }
+
+    @Test
+    public void keptJarReferencesTest() throws IOException {
+        // classes referenced only by a jar which is always kept are reachable as well
+        List<Path> unusedJars = new JarPruner(Collections.emptySet()).findUnusedJars(this.reflectJar,
+                Collections.singletonList(this.appJar), Arrays.asList(this.usedJar, this.pluginJar, this.keptJar));
+        Assert.assertEquals(unusedJars, Collections.singletonList(this.keptJar));
+    }
+
+    @Test
+    public void unreferencedServiceTest() throws IOException {
+        // providers are not reachable when their service type is never referenced
+        List<Path> unusedJars = new JarPruner(Collections.emptySet()).findUnusedJars(this.reflectJar,
+                Collections.emptyList(), Collections.singletonList(this.pluginJar));
+        Assert.assertEquals(unusedJars, Collections.singletonList(this.pluginJar));
+    }
+
+    @Test
+    public void resourceOnlyJarTest() throws IOException {
+        // resources are loaded by name, so a jar without classes is never unreachable
+        List<Path> unusedJars = new JarPruner(Collections.emptySet()).findUnusedJars(this.appJar,
+                Collections.emptyList(), Arrays.asList(this.resourceJar, this.unusedJar));
+        Assert.assertEquals(unusedJars, Collections.singletonList(this.unusedJar));
+    }
+
+    @Test
+    public void classLoadedByNameTest() throws IOException {
+        // the class name passed to Class.forName is a string constant of the caller
+        List<Path> unusedJars = new JarPruner(Collections.emptySet()).findUnusedJars(this.appJar,
+                Collections.emptyList(), Collections.singletonList(this.reflectJar));
+        Assert.assertTrue(unusedJars.isEmpty());
+    }
+
+    private void writeSource(Path sourceDir, String name, String content) throws IOException {
+        Path sourceFile = sourceDir.resolve(name);
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Path createJar(String name, Map<String, String> resources, String... classNames) throws IOException {
+        Path jar = TARGET_DIR.resolve(name);
+        try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jarOut = new JarOutputStream(out)) {
+            for (String className : classNames) {
+                jarOut.putNextEntry(new JarEntry(className + ".class"));
+                jarOut.write(Files.readAllBytes(CLASSES_DIR.resolve(className + ".class")));
+                jarOut.closeEntry();
+            }
+            for (Map.Entry<String, String> resource : resources.entrySet()) {
+                jarOut.putNextEntry(new JarEntry(resource.getKey()));
+                jarOut.write(resource.getValue().getBytes(StandardCharsets.UTF_8));
+                jarOut.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(TARGET_DIR.toFile());
+    }
+}
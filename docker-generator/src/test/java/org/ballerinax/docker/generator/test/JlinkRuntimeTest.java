@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import org.apache.commons.io.FileUtils;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.SOURCE_DIR_PATH;
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.createDockerModel;
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.createDockerfile;
+
+/**
+ * jlink runtime stage tests.
+ */
+public class JlinkRuntimeTest {
+
+    private static final Path TARGET_DIR = SOURCE_DIR_PATH.resolve("target-jlink");
+
+    @Test
+    public void jlinkRuntimeDockerfileTest() throws DockerGenException, IOException {
+        DockerModel dockerModel = createDockerModel();
+        dockerModel.setJlinkRuntime(true);
+        dockerModel.setCommandArg(" --b7a.http.accesslog.console=true");
+        String dockerfile = createDockerfile(dockerModel, TARGET_DIR.resolve("jlink"));
+        Assert.assertTrue(dockerfile.contains("FROM eclipse-temurin:11-jdk AS builder\n"));
+        Assert.assertTrue(dockerfile.contains("RUN jdeps --ignore-missing-deps --print-module-deps"));
+        Assert.assertTrue(dockerfile.contains("jlink --add-modules \"$(cat modules.txt),jdk.crypto.ec\""));
+        Assert.assertTrue(dockerfile.contains("FROM gcr.io/distroless/java-base-debian12\n"));
+        Assert.assertTrue(dockerfile.contains("COPY --from=builder /opt/java/minimal /opt/java/minimal\n"));
+        Assert.assertFalse(dockerfile.contains("apk add"));
+        Assert.assertFalse(dockerfile.contains("USER ballerina"));
+        Assert.assertTrue(dockerfile.contains("USER 65532\n"));
+        Assert.assertTrue(dockerfile.endsWith("CMD [\"/opt/java/minimal/bin/java\", \"-Xdiag\", \"-cp\", " +
+                "\"hello.jar:jars/*\", \"wso2/bal/1/$_init\", \"--b7a.http.accesslog.console=true\"]\n"));
+    }
+
+    @Test
+    public void jlinkRuntimeWithAppCdsTest() throws DockerGenException, IOException {
+        DockerModel dockerModel = createDockerModel();
+        dockerModel.setJlinkRuntime(true);
+        dockerModel.setAppCds(true);
+        String dockerfile = createDockerfile(dockerModel, TARGET_DIR.resolve("jlink-cds"));
+        // the runtime is linked and the archive is dumped in the same builder stage
+        Assert.assertTrue(dockerfile.contains("FROM eclipse-temurin:11-jdk AS builder\n"));
+        Assert.assertEquals(dockerfile.split("\nFROM ").length - 1, 2);
+        Assert.assertTrue(dockerfile.contains("RUN /opt/java/minimal/bin/java -XX:DumpLoadedClassList=classes.lst"));
+        Assert.assertTrue(dockerfile.contains("\"-XX:SharedArchiveFile=app.jsa\""));
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(TARGET_DIR.toFile());
+    }
+}
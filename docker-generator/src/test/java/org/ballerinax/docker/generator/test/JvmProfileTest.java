@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.ballerinax.docker.generator.models.JvmProfile;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * JVM tuning profile tests.
+ */
+public class JvmProfileTest {
+
+    @Test
+    public void defaultProfileTest() {
+        DockerModel dockerModel = new DockerModel();
+        Assert.assertEquals(dockerModel.getJvmProfile(), JvmProfile.DEFAULT);
+        Assert.assertEquals(dockerModel.getImageEnv().get("JAVA_TOOL_OPTIONS"),
+                "-XX:InitialRAMPercentage=50.0 -XX:MaxRAMPercentage=75.0");
+    }
+
+    @Test
+    public void profileOptionsTest() {
+        DockerModel dockerModel = new DockerModel();
+        dockerModel.setJvmProfile(JvmProfile.SMALL_FOOTPRINT);
+        String javaOptions = dockerModel.getImageEnv().get("JAVA_TOOL_OPTIONS");
+        Assert.assertTrue(javaOptions.contains("-XX:+UseSerialGC"));
+        Assert.assertTrue(javaOptions.contains("-XX:TieredStopAtLevel=1"));
+        Assert.assertTrue(javaOptions.contains("-Xss256k"));
+        Assert.assertTrue(JvmProfile.LOW_LATENCY.getJavaOptions().contains("-XX:MaxGCPauseMillis=50"));
+        Assert.assertTrue(JvmProfile.THROUGHPUT.getJavaOptions().contains("-XX:+UseG1GC"));
+
+        // the CPU quota of the container is left to the JVM, and experimental collectors are not used
+        for (JvmProfile profile : JvmProfile.values()) {
+            Assert.assertFalse(profile.getJavaOptions().contains("ActiveProcessorCount"));
+            Assert.assertFalse(profile.getJavaOptions().contains("UnlockExperimentalVMOptions"));
+        }
+
+        dockerModel.setJvmProfile(JvmProfile.NONE);
+        Assert.assertFalse(dockerModel.getImageEnv().containsKey("JAVA_TOOL_OPTIONS"));
+    }
+
+    @Test
+    public void userJavaOptionsTest() {
+        DockerModel dockerModel = new DockerModel();
+        dockerModel.setJvmProfile(JvmProfile.THROUGHPUT);
+        dockerModel.setEnv(Collections.singletonMap("JAVA_TOOL_OPTIONS", "-Xmx128m"));
+        Map<String, String> imageEnv = dockerModel.getImageEnv();
+        Assert.assertEquals(imageEnv.get("JAVA_TOOL_OPTIONS"), "-Xmx128m");
+        Assert.assertEquals(imageEnv.size(), 1);
+    }
+}
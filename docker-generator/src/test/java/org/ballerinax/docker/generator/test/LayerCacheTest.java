@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import org.apache.commons.io.FileUtils;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.oci.LayerBlob;
+import org.ballerinax.docker.generator.oci.LayerCache;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dependency jar layer cache tests.
+ */
+public class LayerCacheTest {
+
+    private static final Path SOURCE_DIR_PATH = Paths.get("src", "test", "resources");
+    private static final Path CACHE_DIR = SOURCE_DIR_PATH.resolve("target-layer-cache");
+
+    @Test
+    public void cacheKeyTest() throws IOException, DockerGenException {
+        Path httpJar = SOURCE_DIR_PATH.resolve("docker-test").resolve("http.jar");
+        Path uuidJar = SOURCE_DIR_PATH.resolve("docker-test").resolve("uuid-native-0.10.0-alpha5-SNAPSHOT.jar");
+        String key = LayerCache.computeKey(List.of(httpJar, uuidJar), "");
+        Assert.assertEquals(LayerCache.computeKey(List.of(httpJar, uuidJar), ""), key);
+        Assert.assertNotEquals(LayerCache.computeKey(List.of(httpJar), ""), key);
+        Assert.assertNotEquals(LayerCache.computeKey(List.of(httpJar, uuidJar), "10001:10001"), key);
+    }
+
+    @Test
+    public void fileModeCacheKeyTest() throws IOException, DockerGenException {
+        Path jar = CACHE_DIR.resolve("mode").resolve("http.jar");
+        Files.createDirectories(jar.getParent());
+        Files.copy(SOURCE_DIR_PATH.resolve("docker-test").resolve("http.jar"), jar);
+        try {
+            Files.setPosixFilePermissions(jar, PosixFilePermissions.fromString("rw-r--r--"));
+            String key = LayerCache.computeKey(List.of(jar), "");
+            // a different umask does not change the layer
+            Files.setPosixFilePermissions(jar, PosixFilePermissions.fromString("rw-------"));
+            Assert.assertEquals(LayerCache.computeKey(List.of(jar), ""), key);
+            Files.setPosixFilePermissions(jar, PosixFilePermissions.fromString("rwxr-xr-x"));
+            Assert.assertNotEquals(LayerCache.computeKey(List.of(jar), ""), key);
+        } catch (UnsupportedOperationException e) {
+            throw new SkipException("POSIX file permissions are not supported");
+        }
+    }
+
+    @Test
+    public void putAndGetTest() throws IOException {
+        LayerCache layerCache = new LayerCache(CACHE_DIR.resolve("get"), 1024);
+        Assert.assertNull(layerCache.get("key1"));
+        layerCache.put("key1", createLayer(layerCache, 100));
+        LayerBlob layerBlob = layerCache.get("key1");
+        Assert.assertNotNull(layerBlob);
+        Assert.assertEquals(layerBlob.getDigest(), "digest-100");
+        Assert.assertEquals(layerBlob.getDiffId(), "diff-id-100");
+        Assert.assertEquals(layerBlob.getSize(), 100);
+    }
+
+    @Test
+    public void evictionTest() throws IOException {
+        LayerCache layerCache = new LayerCache(CACHE_DIR.resolve("evict"), 250);
+        layerCache.put("old", createLayer(layerCache, 100));
+        layerCache.put("used", createLayer(layerCache, 100));
+        layerCache.put("new", createLayer(layerCache, 100));
+        Path cacheDir = layerCache.getCacheDir();
+        Files.setLastModifiedTime(cacheDir.resolve("old.tar.gz"), FileTime.fromMillis(1000));
+        Files.setLastModifiedTime(cacheDir.resolve("used.tar.gz"), FileTime.fromMillis(2000));
+        Files.setLastModifiedTime(cacheDir.resolve("new.tar.gz"), FileTime.fromMillis(3000));
+        // a lookup marks the layer as recently used
+        Assert.assertNotNull(layerCache.get("used"));
+
+        layerCache.evict(Collections.emptySet());
+        Assert.assertNull(layerCache.get("old"));
+        Assert.assertNotNull(layerCache.get("used"));
+        Assert.assertNotNull(layerCache.get("new"));
+
+        layerCache.evict(Collections.singleton("used"));
+        Assert.assertNotNull(layerCache.get("used"));
+    }
+
+    private LayerBlob createLayer(LayerCache layerCache, int size) throws IOException {
+        Path layer = Files.createTempFile(layerCache.getCacheDir(), "layer-", ".tmp");
+        Files.write(layer, new byte[size]);
+        return new LayerBlob(layer, "digest-" + size, "diff-id-" + size, size);
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(CACHE_DIR.toFile());
+    }
+}
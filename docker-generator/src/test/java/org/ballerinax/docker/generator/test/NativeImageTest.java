@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.ClassPathMode;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.ballerinax.docker.generator.utils.NativeImageConfig;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.EXECUTABLE_JAR_PATH;
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.SOURCE_DIR_PATH;
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.createDockerModel;
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.createDockerfile;
+import static org.wso2.ballerinalang.compiler.bir.codegen.JvmConstants.MODULE_INIT_CLASS_NAME;
+import static org.wso2.ballerinalang.compiler.bir.codegen.JvmConstants.VALUE_CLASS_PREFIX;
+
+/**
+ * GraalVM native image build tests.
+ */
+public class NativeImageTest {
+
+    private static final Path TARGET_DIR = SOURCE_DIR_PATH.resolve("target-native");
+
+    @Test
+    public void nativeImageDockerfileTest() throws DockerGenException, IOException {
+        DockerModel dockerModel = createDockerModel();
+        dockerModel.setNativeImage(true);
+        dockerModel.setNativeImageArgs("-march=compatibility");
+        dockerModel.setCommandArg(" --b7a.http.accesslog.console=true");
+        Path outputDir = TARGET_DIR.resolve("native");
+        String dockerfile = createDockerfile(dockerModel, outputDir);
+        Assert.assertTrue(dockerfile.contains("FROM ghcr.io/graalvm/native-image-community:17 AS builder\n"));
+        Assert.assertTrue(dockerfile.contains("COPY native-image /home/ballerina/native-image/\n"));
+        Assert.assertTrue(dockerfile.contains("RUN native-image --no-fallback " +
+                "-H:ConfigurationFileDirectories=native-image -cp \"hello.jar:jars/*\" -march=compatibility " +
+                "-o app 'wso2.bal.1.$_init'\n"));
+        Assert.assertTrue(dockerfile.contains("FROM gcr.io/distroless/base-debian12\n"));
+        Assert.assertTrue(dockerfile.contains("COPY --from=builder /home/ballerina/app /home/ballerina\n"));
+        Assert.assertTrue(dockerfile.contains("USER 65532\n"));
+        Assert.assertFalse(dockerfile.contains("JAVA_TOOL_OPTIONS"));
+        Assert.assertTrue(dockerfile.endsWith("CMD [\"./app\", \"--b7a.http.accesslog.console=true\"]\n"));
+
+        String reflectConfig = new String(Files.readAllBytes(outputDir.resolve("native-image")
+                .resolve("reflect-config.json")), StandardCharsets.UTF_8);
+        Assert.assertTrue(reflectConfig.contains("\"wso2.bal.1.$_init\""));
+        Assert.assertTrue(reflectConfig.contains("\"ballerina.http.1_1_0-alpha5.$value$ProxyConfig\""));
+        Assert.assertFalse(reflectConfig.contains("Frame\""));
+        String resourceConfig = new String(Files.readAllBytes(outputDir.resolve("native-image")
+                .resolve("resource-config.json")), StandardCharsets.UTF_8);
+        Assert.assertTrue(resourceConfig.contains("META-INF/services/.*"));
+        Assert.assertFalse(resourceConfig.contains("MANIFEST.MF"));
+
+        // the jars are only copied into the builder stage, so they are part of the context but not of the image
+        JsonNode contextReport = new ObjectMapper().readTree(outputDir.resolve("context-report.json").toFile());
+        Assert.assertEquals(contextReport.path("imageSize").path("added").asLong(), 0);
+        Assert.assertTrue(contextReport.path("entries").toString().contains("\"native-image\""));
+    }
+
+    @Test
+    public void compiledModuleReflectConfigTest() throws IOException {
+        // http.jar is compiled by the Ballerina compiler, every class the runtime loads by name must be registered
+        NativeImageConfig config = NativeImageConfig.create(EXECUTABLE_JAR_PATH, "wso2.bal.1.$_init");
+        List<String> reflectedClasses = config.getReflectedClasses();
+        Assert.assertTrue(reflectedClasses.contains("wso2.bal.1.$_init"));
+        Assert.assertTrue(reflectedClasses.contains("ballerina.http.1_1_0-alpha5." + MODULE_INIT_CLASS_NAME));
+        Assert.assertTrue(reflectedClasses.contains("ballerina.http.1_1_0-alpha5." + VALUE_CLASS_PREFIX +
+                "ProxyConfig"));
+
+        int valueClasses = 0;
+        try (ZipFile jarFile = new ZipFile(EXECUTABLE_JAR_PATH.toFile())) {
+            for (ZipEntry entry : Collections.list(jarFile.entries())) {
+                String name = entry.getName();
+                String simpleName = name.substring(name.lastIndexOf('/') + 1);
+                if (simpleName.startsWith(VALUE_CLASS_PREFIX) && simpleName.endsWith(".class")) {
+                    valueClasses++;
+                    Assert.assertTrue(reflectedClasses.contains(name.substring(0, name.length() - ".class".length())
+                            .replace('/', '.')), name);
+                }
+            }
+        }
+        Assert.assertTrue(valueClasses > 0);
+        for (String className : reflectedClasses) {
+            Assert.assertFalse(className.contains("$typedesc$"), className);
+            Assert.assertFalse(className.endsWith("Frame"), className);
+        }
+    }
+
+    @Test
+    public void nativeImageReplacesJvmOptimizationsTest() throws DockerGenException, IOException {
+        DockerModel dockerModel = createDockerModel();
+        dockerModel.setNativeImage(true);
+        dockerModel.setJlinkRuntime(true);
+        dockerModel.setAppCds(true);
+        dockerModel.setClassPathMode(ClassPathMode.MANIFEST_JAR);
+        Path outputDir = TARGET_DIR.resolve("native-jvm-options");
+        String dockerfile = createDockerfile(dockerModel, outputDir);
+        Assert.assertEquals(dockerfile.split("\nFROM ").length - 1, 2);
+        Assert.assertFalse(dockerfile.contains("jlink"));
+        Assert.assertFalse(dockerfile.contains("SharedArchiveFile"));
+        Assert.assertFalse(Files.exists(outputDir.resolve("classpath.jar")));
+    }
+
+    @Test(expectedExceptions = DockerGenException.class,
+            expectedExceptionsMessageRegExp = "native images cannot be debugged remotely.*")
+    public void nativeImageDebugTest() throws DockerGenException, IOException {
+        DockerModel dockerModel = createDockerModel();
+        dockerModel.setNativeImage(true);
+        dockerModel.setEnableDebug(true);
+        createDockerfile(dockerModel, TARGET_DIR.resolve("native-debug"));
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(TARGET_DIR.toFile());
+    }
+}
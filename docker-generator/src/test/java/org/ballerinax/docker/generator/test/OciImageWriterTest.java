@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.commons.io.FileUtils;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.CopyFileModel;
+import org.ballerinax.docker.generator.models.DockerModel;
+import org.ballerinax.docker.generator.oci.OciImageWriter;
+import org.ballerinax.docker.generator.test.utils.DockerTestUtils;
+import org.ballerinax.docker.generator.utils.JarLayerPlanner;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.EXECUTABLE_JAR_PATH;
+import static org.ballerinax.docker.generator.test.utils.DockerTestUtils.SOURCE_DIR_PATH;
+
+/**
+ * Daemonless OCI image writer tests.
+ */
+public class OciImageWriterTest {
+
+    private static final Path TARGET_DIR = SOURCE_DIR_PATH.resolve("target-oci");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void writeOciImageTest() throws IOException, DockerGenException, NoSuchAlgorithmException {
+        Path baseLayout = createBaseLayout(TARGET_DIR.resolve("base"));
+        DockerModel dockerModel = createDockerModel(baseLayout);
+        Path layoutDir = TARGET_DIR.resolve("image");
+        new OciImageWriter(dockerModel, "CMD java -Xdiag -cp \"hello.jar:jars/*\" 'wso2/bal/1/$_init'")
+                .write(EXECUTABLE_JAR_PATH, layoutDir);
+
+        JsonNode index = MAPPER.readTree(layoutDir.resolve("index.json").toFile());
+        JsonNode descriptor = index.path("manifests").path(0);
+        Assert.assertEquals(descriptor.path("annotations").path("org.opencontainers.image.ref.name").asText(), "v1");
+        JsonNode manifest = readBlob(layoutDir, descriptor.path("digest").asText());
+        // base layer, the third-party jar layers, the executable jar and the config file
+        int layerCount = 3 + getJarLayerCount(dockerModel);
+        Assert.assertEquals(manifest.path("layers").size(), layerCount);
+        for (JsonNode layer : manifest.path("layers")) {
+            Assert.assertTrue(Files.exists(blobPath(layoutDir, layer.path("digest").asText())));
+        }
+
+        JsonNode config = readBlob(layoutDir, manifest.path("config").path("digest").asText());
+        Assert.assertEquals(config.path("rootfs").path("diff_ids").size(), layerCount);
+        Assert.assertEquals(config.path("config").path("Cmd").path(2).asText(),
+                "java -Xdiag -cp \"hello.jar:jars/*\" 'wso2/bal/1/$_init'");
+        // the ballerina user is not added to the base image, the image runs as its ids instead
+        Assert.assertEquals(config.path("config").path("User").asText(), "10001:10001");
+        Assert.assertTrue(config.path("config").path("ExposedPorts").has("9090/tcp"));
+        String env = config.path("config").path("Env").toString();
+        Assert.assertTrue(env.contains("BALCONFIGFILE=/home/ballerina/conf/"));
+        Assert.assertTrue(env.contains("PATH=/usr/bin"));
+        Assert.assertTrue(env.contains("HOME=/home/ballerina"));
+        for (int i = 1; i < layerCount; i++) {
+            Assert.assertEquals(readWorkDirOwner(blobPath(layoutDir, manifest.path("layers").path(i).path("digest")
+                    .asText())), 10001);
+        }
+
+        // writing the same inputs again must produce the same image
+        new OciImageWriter(dockerModel, "CMD java -Xdiag -cp \"hello.jar:jars/*\" 'wso2/bal/1/$_init'")
+                .write(EXECUTABLE_JAR_PATH, layoutDir);
+        JsonNode rewrittenIndex = MAPPER.readTree(layoutDir.resolve("index.json").toFile());
+        Assert.assertEquals(rewrittenIndex.path("manifests").path(0).path("digest").asText(),
+                descriptor.path("digest").asText());
+    }
+
+    @Test
+    public void layerCacheTest() throws IOException, DockerGenException, NoSuchAlgorithmException {
+        Path baseLayout = createBaseLayout(TARGET_DIR.resolve("base"));
+        DockerModel dockerModel = createDockerModel(baseLayout);
+        Path layerCacheDir = TARGET_DIR.resolve("layer-cache");
+        dockerModel.setLayerCacheDir(layerCacheDir.toString());
+        OciImageWriter writer = new OciImageWriter(dockerModel, "CMD java");
+        writer.write(EXECUTABLE_JAR_PATH, TARGET_DIR.resolve("cached-1"));
+        try (Stream<Path> cachedLayers = Files.list(layerCacheDir)) {
+            Assert.assertEquals(cachedLayers.filter(path -> path.toString().endsWith(".tar.gz")).count(),
+                    getJarLayerCount(dockerModel));
+        }
+
+        writer.write(EXECUTABLE_JAR_PATH, TARGET_DIR.resolve("cached-2"));
+        JsonNode firstIndex = MAPPER.readTree(TARGET_DIR.resolve("cached-1").resolve("index.json").toFile());
+        JsonNode secondIndex = MAPPER.readTree(TARGET_DIR.resolve("cached-2").resolve("index.json").toFile());
+        Assert.assertEquals(secondIndex.path("manifests").path(0).path("digest").asText(),
+                firstIndex.path("manifests").path(0).path("digest").asText());
+    }
+
+    @Test
+    public void customBaseImageUserTest() throws IOException, DockerGenException, NoSuchAlgorithmException {
+        Path baseLayout = createBaseLayout(TARGET_DIR.resolve("base"));
+        DockerModel dockerModel = createDockerModel(baseLayout);
+        // the only image of the layout is used even though it is tagged v1
+        dockerModel.setBaseImage("example/base:latest");
+        Path layoutDir = TARGET_DIR.resolve("custom-base");
+        new OciImageWriter(dockerModel, "CMD java").write(EXECUTABLE_JAR_PATH, layoutDir);
+
+        JsonNode index = MAPPER.readTree(layoutDir.resolve("index.json").toFile());
+        JsonNode manifest = readBlob(layoutDir, index.path("manifests").path(0).path("digest").asText());
+        JsonNode config = readBlob(layoutDir, manifest.path("config").path("digest").asText());
+        Assert.assertEquals(config.path("config").path("User").asText(), "ballerina");
+        Assert.assertFalse(config.path("config").path("Env").toString().contains("HOME="));
+        Assert.assertEquals(readWorkDirOwner(blobPath(layoutDir, manifest.path("layers").path(1).path("digest")
+                .asText())), 0);
+    }
+
+    @Test(expectedExceptions = DockerGenException.class,
+            expectedExceptionsMessageRegExp = "no image tagged 'v1' found in base image OCI layout .*")
+    public void baseImageTagMismatchTest() throws IOException, DockerGenException, NoSuchAlgorithmException {
+        Path baseLayout = createBaseLayout(TARGET_DIR.resolve("base-tags"));
+        JsonNode manifest = MAPPER.readTree(baseLayout.resolve("index.json").toFile()).path("manifests").path(0);
+        ObjectNode index = MAPPER.createObjectNode();
+        index.put("schemaVersion", 2);
+        ArrayNode manifests = index.putArray("manifests");
+        for (String tag : new String[]{"v2", "v3"}) {
+            ObjectNode descriptor = manifest.deepCopy();
+            descriptor.putObject("annotations").put("org.opencontainers.image.ref.name", tag);
+            manifests.add(descriptor);
+        }
+        MAPPER.writeValue(baseLayout.resolve("index.json").toFile(), index);
+        new OciImageWriter(createDockerModel(baseLayout), "CMD java").write(EXECUTABLE_JAR_PATH,
+                TARGET_DIR.resolve("tag-mismatch"));
+    }
+
+    @Test(expectedExceptions = DockerGenException.class,
+            expectedExceptionsMessageRegExp = "no linux/amd64 image found in base image OCI layout .*")
+    public void missingBasePlatformTest() throws IOException, DockerGenException, NoSuchAlgorithmException {
+        Path baseLayout = createBaseLayout(TARGET_DIR.resolve("base-platforms"));
+        ObjectNode manifest = (ObjectNode) MAPPER.readTree(baseLayout.resolve("index.json").toFile())
+                .path("manifests").path(0);
+        manifest.remove("annotations");
+        ObjectNode platform = manifest.putObject("platform");
+        platform.put("os", "linux");
+        platform.put("architecture", "arm64");
+        ObjectNode imageIndex = MAPPER.createObjectNode();
+        imageIndex.put("schemaVersion", 2);
+        imageIndex.put("mediaType", "application/vnd.oci.image.index.v1+json");
+        imageIndex.putArray("manifests").add(manifest);
+        String imageIndexDigest = writeBlob(baseLayout, MAPPER.writeValueAsBytes(imageIndex));
+        Files.write(baseLayout.resolve("index.json"), ("{\"schemaVersion\":2,\"manifests\":[{\"mediaType\":" +
+                "\"application/vnd.oci.image.index.v1+json\",\"digest\":\"" + imageIndexDigest + "\",\"size\":1," +
+                "\"annotations\":{\"org.opencontainers.image.ref.name\":\"v1\"}}]}")
+                .getBytes(StandardCharsets.UTF_8));
+        new OciImageWriter(createDockerModel(baseLayout), "CMD java").write(EXECUTABLE_JAR_PATH,
+                TARGET_DIR.resolve("missing-platform"));
+    }
+
+    @Test(expectedExceptions = DockerGenException.class,
+            expectedExceptionsMessageRegExp = "base image OCI layout is required to build docker image .*")
+    public void missingBaseLayoutTest() throws DockerGenException, IOException {
+        DockerModel dockerModel = createDockerModel(null);
+        new OciImageWriter(dockerModel, "CMD java").write(EXECUTABLE_JAR_PATH,
+                TARGET_DIR.resolve("missing"));
+    }
+
+    private DockerModel createDockerModel(Path baseLayout) throws IOException, DockerGenException {
+        DockerModel dockerModel = DockerTestUtils.createDockerModel();
+        dockerModel.setBuildImage(true);
+        dockerModel.setDaemonlessBuild(true);
+        dockerModel.setBaseImageLayout(null == baseLayout ? null : baseLayout.toString());
+        CopyFileModel configFile = new CopyFileModel();
+        configFile.setSource(SOURCE_DIR_PATH.resolve("conf").resolve("Config.toml").toString());
+        configFile.setTarget("/home/ballerina/conf/");
+        configFile.setBallerinaConf(true);
+        dockerModel.setCopyFiles(Collections.singleton(configFile));
+        return dockerModel;
+    }
+
+    private Path createBaseLayout(Path layoutDir) throws IOException, NoSuchAlgorithmException {
+        Files.createDirectories(layoutDir.resolve("blobs").resolve("sha256"));
+        String layerDigest = writeBlob(layoutDir, "base-layer".getBytes(StandardCharsets.UTF_8));
+        String configDigest = writeBlob(layoutDir, ("{\"architecture\":\"amd64\",\"os\":\"linux\",\"config\":" +
+                "{\"Env\":[\"PATH=/usr/bin\"],\"User\":\"ballerina\"},\"rootfs\":{\"type\":\"layers\"," +
+                "\"diff_ids\":[\"" + layerDigest + "\"]}}").getBytes(StandardCharsets.UTF_8));
+        String manifestDigest = writeBlob(layoutDir, ("{\"schemaVersion\":2,\"mediaType\":" +
+                "\"application/vnd.oci.image.manifest.v1+json\",\"config\":{\"mediaType\":" +
+                "\"application/vnd.oci.image.config.v1+json\",\"digest\":\"" + configDigest + "\",\"size\":1}," +
+                "\"layers\":[{\"mediaType\":\"application/vnd.docker.image.rootfs.diff.tar.gzip\",\"digest\":\"" +
+                layerDigest + "\",\"size\":10}]}").getBytes(StandardCharsets.UTF_8));
+        Files.write(layoutDir.resolve("index.json"), ("{\"schemaVersion\":2,\"manifests\":[{\"mediaType\":" +
+                "\"application/vnd.oci.image.manifest.v1+json\",\"digest\":\"" + manifestDigest + "\",\"size\":1," +
+                "\"annotations\":{\"org.opencontainers.image.ref.name\":\"v1\"}}]}")
+                .getBytes(StandardCharsets.UTF_8));
+        return layoutDir;
+    }
+
+    private String writeBlob(Path layoutDir, byte[] content) throws IOException, NoSuchAlgorithmException {
+        String digest = "sha256:" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        Files.write(blobPath(layoutDir, digest), content);
+        return digest;
+    }
+
+    private JsonNode readBlob(Path layoutDir, String digest) throws IOException {
+        return MAPPER.readTree(blobPath(layoutDir, digest).toFile());
+    }
+
+    private Path blobPath(Path layoutDir, String digest) {
+        return layoutDir.resolve("blobs").resolve("sha256").resolve(digest.substring("sha256:".length()));
+    }
+
+    /**
+     * Read the owner of the working directory entry of a layer.
+     *
+     * @param layer compressed layer tarball
+     * @return user id of the owner, -1 if the layer has no working directory entry
+     */
+    private int readWorkDirOwner(Path layer) throws IOException {
+        byte[] tar;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(layer))) {
+            tar = in.readAllBytes();
+        }
+        int offset = 0;
+        while (offset + 512 <= tar.length && tar[offset] != 0) {
+            String name = new String(tar, offset, 100, StandardCharsets.UTF_8).trim();
+            long size = Long.parseLong(new String(tar, offset + 124, 11, StandardCharsets.UTF_8).trim(), 8);
+            if (name.equals("home/ballerina/")) {
+                return Integer.parseInt(new String(tar, offset + 108, 7, StandardCharsets.UTF_8).trim(), 8);
+            }
+            offset += 512 + (int) ((size + 511) / 512 * 512);
+        }
+        return -1;
+    }
+
+    private int getJarLayerCount(DockerModel dockerModel) {
+        return new JarLayerPlanner(dockerModel.getMaxLayersPerGroup()).plan(dockerModel.getDependencyJars()).size();
+    }
+
+    @AfterClass
+    public void cleanUp() throws IOException {
+        FileUtils.deleteDirectory(TARGET_DIR.toFile());
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2023, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinax.docker.generator.test;
+
+import org.apache.commons.io.FileUtils;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.utils.DockerGenUtils;
+import org.ballerinax.docker.generator.utils.ParallelStager;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parallel artifact staging tests.
+ */
+public class ParallelStagerTest {
+
+    @Test
+    public void boundedConcurrencyTest() throws DockerGenException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger staged = new AtomicInteger();
+        List<ParallelStager.StagingTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                staged.incrementAndGet();
+            });
+        }
+        List<Integer> progress = new ArrayList<>();
+        new ParallelStager(3).stage(tasks, progress::add);
+        Assert.assertEquals(staged.get(), 20);
+        Assert.assertTrue(maxRunning.get() <= 3);
+        Assert.assertEquals(progress.size(), 20);
+        Assert.assertEquals(progress.get(19).intValue(), 20);
+    }
+
+    @Test
+    public void sharedPermitsTest() throws InterruptedException, ExecutionException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<ParallelStager.StagingTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+            });
+        }
+        // four stagers of the same batch with a concurrency of 3 each copy at most 3 files at once in total
+        Semaphore sharedPermits = new Semaphore(3);
+        ExecutorService batch = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Void>> stagers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                stagers.add(batch.submit(() -> {
+                    new ParallelStager(3, sharedPermits).stage(tasks, completed -> { });
+                    return null;
+                }));
+            }
+            for (Future<Void> stager : stagers) {
+                stager.get();
+            }
+        } finally {
+            batch.shutdownNow();
+        }
+        Assert.assertTrue(maxRunning.get() <= 3);
+        Assert.assertEquals(sharedPermits.availablePermits(), 3);
+    }
+
+    @Test(expectedExceptions = DockerGenException.class,
+            expectedExceptionsMessageRegExp = "error while copying file/folder 'missing.jar' as it does not exist")
+    public void failFastTest() throws DockerGenException {
+        List<ParallelStager.StagingTask> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            throw new DockerGenException("error while copying file/folder 'missing.jar' as it does not exist");
+        });
+        for (int i = 0; i < 10; i++) {
+            tasks.add(() -> {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        new ParallelStager(2).stage(tasks, completed -> { });
+    }
+
+    @Test
+    public void failureWithoutMessageTest() {
+        List<ParallelStager.StagingTask> tasks = new ArrayList<>();
+        tasks.add(() -> { });
+        tasks.add(() -> {
+            throw new IllegalStateException();
+        });
+        try {
+            new ParallelStager(2).stage(tasks, completed -> { });
+            Assert.fail("Expected error not thrown");
+        } catch (DockerGenException e) {
+            Assert.assertEquals(e.getMessage(), "error while staging docker artifacts: " +
+                    IllegalStateException.class.getName());
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void sequentialStagingTest() throws DockerGenException {
+        List<String> order = new ArrayList<>();
+        List<ParallelStager.StagingTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String name = "file-" + i;
+            tasks.add(() -> order.add(name));
+        }
+        new ParallelStager(1).stage(tasks, completed -> { });
+        Assert.assertEquals(order, List.of("file-0", "file-1", "file-2", "file-3", "file-4"));
+    }
+
+    @Test
+    public void concurrentStagingToSameTargetTest() throws DockerGenException, IOException {
+        Path workDir = Files.createTempDirectory("parallel-staging");
+        try {
+            Path source = workDir.resolve("app.jar");
+            byte[] content = new byte[64 * 1024];
+            Arrays.fill(content, (byte) 7);
+            Files.write(source, content);
+            for (int round = 0; round < 500; round++) {
+                Path target = workDir.resolve("staged-" + round).resolve("app.jar");
+                List<ParallelStager.StagingTask> tasks = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    // the executable jar may also be listed as a dependency jar and staged to the same target
+                    tasks.add(() -> DockerGenUtils.copyFileOrDirectory(source, target));
+                }
+                new ParallelStager(8).stage(tasks, completed -> { });
+                Assert.assertEquals(Files.readAllBytes(source), content);
+                Assert.assertEquals(Files.readAllBytes(target), content);
+            }
+        } finally {
+            FileUtils.deleteDirectory(workDir.toFile());
+        }
+    }
+}
@@ -23,21 +23,36 @@ import com.github.dockerjava.api.command.InspectImageResponse;
 import com.github.dockerjava.api.model.ExposedPort;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientBuilder;
+import org.ballerinalang.model.elements.PackageID;
+import org.ballerinax.docker.generator.DockerArtifactHandler;
+import org.ballerinax.docker.generator.exceptions.DockerGenException;
+import org.ballerinax.docker.generator.models.DockerModel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.ballerinalang.compiler.util.Name;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Docker test utils.
  */
 public class DockerTestUtils {
 
+    public static final Path SOURCE_DIR_PATH = Paths.get("src", "test", "resources");
+    public static final Path EXECUTABLE_JAR_PATH = SOURCE_DIR_PATH.resolve("docker-test").resolve("http.jar");
     private static final Logger log = LoggerFactory.getLogger(DockerTestUtils.class);
 
     public static DockerClient getDockerClient() {
@@ -111,4 +126,65 @@ public class DockerTestUtils {
         ((Map<String, String>) field.get(env)).remove(name);
     }
 
+    /**
+     * Get the dependency jars of the docker-test module.
+     *
+     * @return Dependency jar paths.
+     * @throws IOException When the docker-test directory cannot be listed.
+     */
+    public static Set<Path> getJarFilePaths() throws IOException {
+        try (Stream<Path> jars = Files.list(SOURCE_DIR_PATH.resolve("docker-test"))) {
+            return jars.collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * Create a docker model for the docker-test module which only generates artifacts.
+     *
+     * @return Docker model.
+     * @throws IOException When the dependency jars cannot be listed.
+     */
+    public static DockerModel createDockerModel() throws IOException {
+        DockerModel dockerModel = new DockerModel();
+        dockerModel.setName("anuruddhal/test-image:v1");
+        dockerModel.setJarFileName("hello.jar");
+        dockerModel.setPorts(Collections.singleton(9090));
+        dockerModel.setService(true);
+        dockerModel.setBuildImage(false);
+        dockerModel.setPkgId(new PackageID(new Name("wso2"), new Name("bal"), new Name("1.0.0")));
+        dockerModel.setDependencyJarPaths(getJarFilePaths());
+        return dockerModel;
+    }
+
+    /**
+     * Generate the docker artifacts of the docker-test module.
+     *
+     * @param dockerModel Docker model.
+     * @param outputDir   Output directory.
+     * @return Output directory.
+     * @throws DockerGenException When the artifacts cannot be generated.
+     * @throws IOException        When the output directory cannot be created.
+     */
+    public static Path createArtifacts(DockerModel dockerModel, Path outputDir) throws DockerGenException,
+            IOException {
+        Files.createDirectories(outputDir);
+        new DockerArtifactHandler(dockerModel).createArtifacts(System.out, "\t@kubernetes:Docker \t\t\t",
+                EXECUTABLE_JAR_PATH, outputDir);
+        return outputDir;
+    }
+
+    /**
+     * Generate the docker artifacts of the docker-test module and read the Dockerfile.
+     *
+     * @param dockerModel Docker model.
+     * @param outputDir   Output directory.
+     * @return Dockerfile content.
+     * @throws DockerGenException When the artifacts cannot be generated.
+     * @throws IOException        When the Dockerfile cannot be read.
+     */
+    public static String createDockerfile(DockerModel dockerModel, Path outputDir) throws DockerGenException,
+            IOException {
+        Path dockerfile = createArtifacts(dockerModel, outputDir).resolve("Dockerfile");
+        return new String(Files.readAllBytes(dockerfile), StandardCharsets.UTF_8);
+    }
 }